@@ -0,0 +1,7 @@
+module SIMON.engine {
+    exports simongame.engine;
+    exports simongame.engine.journal;
+    exports simongame.engine.metrics;
+    exports simongame.engine.scores;
+    exports simongame.engine.snapshot;
+}
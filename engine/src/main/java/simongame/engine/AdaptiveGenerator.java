@@ -0,0 +1,205 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 6:05 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: AdaptiveGenerator
+ *
+ * Description: Picks the lights the player gets wrong more often
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * Picks lights in proportion to weights that grow each time the player
+ * misses a light and shrink back, one step at a time, each time they get
+ * it right, so the game keeps testing the player's weak spots. Weights
+ * carry over from game to game.
+ * <p>
+ * The weights live in a Fenwick tree, so a press updates one weight and
+ * picking a step searches the running totals, both in O(log n) for n
+ * lights with nothing recomputed. Steps are picked a block at a time, so
+ * a miss shows up in the sequence from the next block on.
+ * <p>
+ * Since the weights depend on every game played before, a game can only
+ * be played again from its seed if the weights it started with are put
+ * back with {@link #setWeight(int, int)}; the presses then move them the
+ * same way.
+ */
+public class AdaptiveGenerator implements SequenceGenerator {
+
+    /**
+     * The weight every light starts with and never drops below
+     */
+    public static final int BASE_WEIGHT = 4;
+
+    /**
+     * How much a miss adds to a light's weight
+     */
+    public static final int MISS_WEIGHT = 8;
+
+    /**
+     * The most weight a light can have
+     */
+    public static final int MAX_WEIGHT = 64;
+
+    /**
+     * The weight of each light
+     */
+    private final int[] weights;
+
+    /**
+     * The Fenwick tree of the weights, indexed from 1
+     */
+    private final int[] tree;
+
+    /**
+     * The largest power of two no bigger than the number of lights, where
+     * a search of the tree starts
+     */
+    private final int topBit;
+
+    /**
+     * Constructs a generator with every light at the base weight
+     *
+     * @param lightCount the number of lights
+     */
+    public AdaptiveGenerator(int lightCount) {
+        this.weights = new int[lightCount];
+        this.tree = new int[lightCount + 1];
+        this.topBit = Integer.highestOneBit(lightCount);
+        for (int i = 0; i < lightCount; i++) {
+            add(i, BASE_WEIGHT);
+        }
+    }
+
+    /**
+     * Fills a block with lights picked in proportion to their current
+     * weights
+     *
+     * @param random     the game's random stream
+     * @param previous   the light of the step just before the block, unused
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights, which must match the weights
+     * @throws IllegalArgumentException if the weights were built for
+     *                                  another number of lights
+     */
+    @Override
+    public void fill(GameRandom random, int previous, int[] steps, int from, int to, int lightCount) {
+        if (lightCount != weights.length) {
+            throw new IllegalArgumentException("Built for " + weights.length + " lights, not " + lightCount);
+        }
+        int total = prefixSum(lightCount);
+        for (int i = from; i < to; i++) {
+            steps[i] = find(random.nextInt(total));
+        }
+    }
+
+    /**
+     * Raises the weight of a missed light, or lowers it towards the base
+     * after a hit
+     *
+     * @param expectedLight the light the player should have pressed
+     * @param correct       true if the player pressed it
+     */
+    @Override
+    public void pressed(int expectedLight, boolean correct) {
+        int weight = weights[expectedLight];
+        int target = correct ? Math.max(BASE_WEIGHT, weight - 1) : Math.min(MAX_WEIGHT, weight + MISS_WEIGHT);
+        add(expectedLight, target - weight);
+    }
+
+    /**
+     * A getter method for the name
+     *
+     * @return {@code adaptive}
+     */
+    @Override
+    public String getName() {
+        return "adaptive";
+    }
+
+    /**
+     * A getter method for the number of lights
+     *
+     * @return the number of lights
+     */
+    public int getLightCount() {
+        return weights.length;
+    }
+
+    /**
+     * Sets the weight of a light
+     *
+     * @param lightIndex the light
+     * @param weight     the weight, from {@link #BASE_WEIGHT} to
+     *                   {@link #MAX_WEIGHT}
+     */
+    public void setWeight(int lightIndex, int weight) {
+        if (weight < BASE_WEIGHT || weight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Bad weight " + weight);
+        }
+        add(lightIndex, weight - weights[lightIndex]);
+    }
+
+    /**
+     * A getter method for the weight of a light
+     *
+     * @param lightIndex the light
+     * @return its weight
+     */
+    public int getWeight(int lightIndex) {
+        return weights[lightIndex];
+    }
+
+    /**
+     * Adds to a light's weight
+     *
+     * @param lightIndex the light
+     * @param delta      the change
+     */
+    private void add(int lightIndex, int delta) {
+        weights[lightIndex] += delta;
+        for (int i = lightIndex + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the total weight of the first lights
+     *
+     * @param count the number of lights
+     * @return their total weight
+     */
+    private int prefixSum(int count) {
+        int sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the light whose share of the running total a value falls in
+     *
+     * @param value the value, from 0 to below the total weight
+     * @return the light
+     */
+    private int find(int value) {
+        int position = 0;
+        for (int bit = topBit; bit != 0; bit >>>= 1) {
+            int next = position + bit;
+            if (next < tree.length && tree[next] <= value) {
+                position = next;
+                value -= tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,86 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 3:05 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: EngineListener
+ *
+ * Description: A listener for changes to a Simon game engine
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * A listener that is told about changes to a {@link SimonEngine}. Every
+ * method does nothing by default, so listeners only override what they
+ * need.
+ */
+public interface EngineListener {
+
+    /**
+     * Called after a new game has started
+     *
+     * @param seed the seed the game's sequence comes from
+     */
+    default void gameStarted(long seed) {
+    }
+
+    /**
+     * Called after a saved game has been resumed. The steps it already had
+     * are not reported one by one.
+     *
+     * @param seed  the seed the game's sequence comes from
+     * @param steps the number of steps in the sequence
+     */
+    default void gameResumed(long seed, int steps) {
+    }
+
+    /**
+     * Called after a step has been added to the game sequence
+     *
+     * @param index      the index of the new step
+     * @param lightIndex the light index of the new step
+     */
+    default void stepAdded(int index, int lightIndex) {
+    }
+
+    /**
+     * Called after the user pressed a light during a game. When the press
+     * completes a round, this is called before the next step is added.
+     *
+     * @param lightIndex the light index the user pressed
+     * @param result     the result returned by {@link SimonEngine#addUserInput(int)}
+     */
+    default void userInput(int lightIndex, int result) {
+    }
+
+    /**
+     * Called after the score has changed
+     *
+     * @param score the new score
+     */
+    default void scoreChanged(int score) {
+    }
+
+    /**
+     * Called after the user pressed the wrong light and the game ended
+     *
+     * @param score the final score
+     */
+    default void gameOver(int score) {
+    }
+
+    /**
+     * Called after the engine moved from one state to another
+     *
+     * @param previous the old state, one of the {@code STATE_} constants of
+     *                 {@link SimonEngine}
+     * @param state    the new state
+     */
+    default void stateChanged(int previous, int state) {
+    }
+}
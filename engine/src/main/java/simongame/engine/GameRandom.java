@@ -0,0 +1,85 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 6:20 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: GameRandom
+ *
+ * Description: A seedable, splittable source of random steps
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A seedable random generator for sequence generation. Every stream knows
+ * the seed it started from, so any game can be played again exactly, and
+ * a stream can be split into independent streams for other games or
+ * worker threads. A stream is not thread-safe; give every thread its own
+ * stream with {@link #split()} instead of sharing one.
+ */
+public interface GameRandom extends RandomGenerator {
+
+    /**
+     * A getter method for the seed this stream started from
+     *
+     * @return the seed
+     */
+    long getSeed();
+
+    /**
+     * Returns a new stream of the same kind that starts from the given seed
+     *
+     * @param seed the seed to start from
+     * @return the new stream
+     */
+    GameRandom withSeed(long seed);
+
+    /**
+     * A getter method for the current state of this stream, which
+     * {@link #withState(long, long)} resumes from
+     *
+     * @return the state
+     */
+    long getState();
+
+    /**
+     * Returns a new stream of the same kind that carries on from a state
+     * saved with {@link #getState()}
+     *
+     * @param seed  the seed the saved stream started from
+     * @param state the saved state
+     * @return the new stream
+     */
+    GameRandom withState(long seed, long state);
+
+    /**
+     * Returns a new independent stream whose seed is drawn from this one.
+     * Splitting is deterministic, so a tree of streams split from one
+     * master seed is the same on every run.
+     *
+     * @return the new stream
+     */
+    default GameRandom split() {
+        return withSeed(nextLong());
+    }
+
+    /**
+     * Fills a block of upcoming steps with light indices
+     *
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights to pick from
+     */
+    default void nextSteps(int[] steps, int from, int to, int lightCount) {
+        for (int i = from; i < to; i++) {
+            steps[i] = nextInt(lightCount);
+        }
+    }
+}
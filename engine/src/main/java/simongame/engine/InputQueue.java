@@ -0,0 +1,185 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 2:20 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: InputQueue
+ *
+ * Description: A bounded lock-free queue of timestamped input events
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded queue of input events, each a kind, a value and a
+ * {@link System#nanoTime()} timestamp kept in parallel primitive arrays.
+ * Any number of threads may offer events without locking; one thread, the
+ * consumer, drains them in the order their slots were claimed.
+ * <p>
+ * Each slot has a sequence number that says whose turn it is: a producer
+ * claims a slot by moving the tail forward with a compare-and-set, writes
+ * the event and then publishes the slot by bumping its sequence; the
+ * consumer reads a slot only once it is published and hands it back by
+ * bumping the sequence a lap ahead. Nothing is allocated after the queue
+ * is built, and a full queue drops new events instead of growing.
+ */
+public class InputQueue {
+
+    /**
+     * Receives the events drained from a queue
+     */
+    public interface Handler {
+
+        /**
+         * Called with one event
+         *
+         * @param kind  the kind of the event
+         * @param value the value of the event, such as a light index
+         * @param nanos the time of the event, from {@link System#nanoTime()}
+         */
+        void event(int kind, int value, long nanos);
+    }
+
+    /**
+     * The kind of each slot's event
+     */
+    private final int[] kinds;
+
+    /**
+     * The value of each slot's event
+     */
+    private final int[] values;
+
+    /**
+     * The time of each slot's event
+     */
+    private final long[] times;
+
+    /**
+     * The sequence number of each slot. A slot is free for the producer of
+     * position p when it holds p, and ready for the consumer when it
+     * holds p + 1.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The position the next producer claims
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The position the consumer reads next. Only touched by the consumer.
+     */
+    private long head;
+
+    /**
+     * The capacity minus one, to turn a position into a slot
+     */
+    private final int mask;
+
+    /**
+     * Constructs an empty queue
+     *
+     * @param capacity the most events the queue holds, rounded up to a
+     *                 power of two
+     */
+    public InputQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Bad capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.kinds = new int[size];
+        this.values = new int[size];
+        this.times = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an event at the end of the queue. Safe to call from any thread.
+     *
+     * @param kind  the kind of the event
+     * @param value the value of the event
+     * @param nanos the time of the event, from {@link System#nanoTime()}
+     * @return true if the event was added, false if the queue was full
+     */
+    public boolean offer(int kind, int value, long nanos) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) position & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    kinds[slot] = kind;
+                    values[slot] = value;
+                    times[slot] = nanos;
+                    // Publishing the sequence makes the writes above visible
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The consumer hasn't freed this slot yet, so the queue is full
+                return false;
+            }
+            // Another producer claimed the slot first, try the next one
+        }
+    }
+
+    /**
+     * Hands the oldest events to a handler, in order. Only the consumer
+     * thread may call this.
+     *
+     * @param handler   receives each event
+     * @param maxEvents the most events to drain
+     * @return the number of events drained
+     */
+    public int drain(Handler handler, int maxEvents) {
+        int drained = 0;
+        while (drained < maxEvents) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                // Empty, or the next producer hasn't finished writing
+                break;
+            }
+            int kind = kinds[slot];
+            int value = values[slot];
+            long nanos = times[slot];
+            sequences.set(slot, head + mask + 1);
+            head++;
+            drained++;
+            handler.event(kind, value, nanos);
+        }
+        return drained;
+    }
+
+    /**
+     * Is the queue empty? Only meaningful on the consumer thread.
+     *
+     * @return true if no published event is waiting
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    /**
+     * A getter method for the capacity
+     *
+     * @return the most events the queue holds
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,183 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 5:55 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: MarkovGenerator
+ *
+ * Description: Picks each step by weights that depend on the step before
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * Picks each step from weights that depend on the light just before it, a
+ * first-order Markov chain. The weights are turned into running totals
+ * once, when the generator is built, so a step costs one random draw and
+ * a binary search of one row. The first step of a game is uniform.
+ */
+public class MarkovGenerator implements SequenceGenerator {
+
+    /**
+     * The running totals of each row of weights; row {@code from} holds,
+     * for each light, the total weight of it and every light before it
+     */
+    private final int[][] cumulative;
+
+    /**
+     * The name of the generator, or null if its weights are custom
+     */
+    private final String name;
+
+    /**
+     * Constructs a generator from a matrix of weights
+     *
+     * @param weights {@code weights[from][to]} is how likely light
+     *                {@code to} is to follow light {@code from}; weights
+     *                are at least 0 and every row has a positive total
+     */
+    public MarkovGenerator(int[][] weights) {
+        this(weights, null);
+    }
+
+    /**
+     * Constructs a generator from a matrix of weights
+     *
+     * @param weights the weights, see {@link #MarkovGenerator(int[][])}
+     * @param name    the name of the generator, or null
+     */
+    private MarkovGenerator(int[][] weights, String name) {
+        this.name = name;
+        int lightCount = weights.length;
+        this.cumulative = new int[lightCount][lightCount];
+        for (int from = 0; from < lightCount; from++) {
+            if (weights[from].length != lightCount) {
+                throw new IllegalArgumentException("The weights must be a square matrix");
+            }
+            long total = 0;
+            for (int to = 0; to < lightCount; to++) {
+                if (weights[from][to] < 0) {
+                    throw new IllegalArgumentException("Negative weight from " + from + " to " + to);
+                }
+                total += weights[from][to];
+                if (total > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("The weights from " + from + " are too large");
+                }
+                cumulative[from][to] = (int) total;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("No light can follow " + from);
+            }
+        }
+    }
+
+    /**
+     * Constructs a generator where any other light is a few times as
+     * likely as a repeat of the light just played
+     *
+     * @param lightCount   the number of lights
+     * @param repeatWeight the weight of playing the same light again
+     * @param otherWeight  the weight of each other light
+     * @return the generator
+     */
+    public static MarkovGenerator discouragingRepeats(int lightCount, int repeatWeight, int otherWeight) {
+        return new MarkovGenerator(repeatWeights(lightCount, repeatWeight, otherWeight));
+    }
+
+    /**
+     * Constructs the generator named {@code markov}, where any other light
+     * is four times as likely as a repeat
+     *
+     * @param lightCount the number of lights
+     * @return the generator
+     */
+    public static MarkovGenerator standard(int lightCount) {
+        return new MarkovGenerator(repeatWeights(lightCount, 1, 4), "markov");
+    }
+
+    /**
+     * Returns weights with one value for a repeat and another for any
+     * other light
+     *
+     * @param lightCount   the number of lights
+     * @param repeatWeight the weight of playing the same light again
+     * @param otherWeight  the weight of each other light
+     * @return the weights
+     */
+    private static int[][] repeatWeights(int lightCount, int repeatWeight, int otherWeight) {
+        int[][] weights = new int[lightCount][lightCount];
+        for (int from = 0; from < lightCount; from++) {
+            for (int to = 0; to < lightCount; to++) {
+                weights[from][to] = from == to ? repeatWeight : otherWeight;
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Fills a block by walking the transition table from the step before
+     * each one; the first step of a game is uniform
+     *
+     * @param random     the game's random stream
+     * @param previous   the light of the step just before the block, or -1
+     *                   if the block starts the game
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights, which must match the table
+     * @throws IllegalArgumentException if the table was built for another
+     *                                  number of lights
+     */
+    @Override
+    public void fill(GameRandom random, int previous, int[] steps, int from, int to, int lightCount) {
+        if (lightCount != cumulative.length) {
+            throw new IllegalArgumentException("Built for " + cumulative.length + " lights, not " + lightCount);
+        }
+        for (int i = from; i < to; i++) {
+            int step;
+            if (previous < 0) {
+                step = random.nextInt(lightCount);
+            } else {
+                int[] row = cumulative[previous];
+                step = search(row, random.nextInt(row[lightCount - 1]));
+            }
+            steps[i] = step;
+            previous = step;
+        }
+    }
+
+    /**
+     * A getter method for the name
+     *
+     * @return {@code markov} for {@link #standard(int)}, otherwise null
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the first running total above a value
+     *
+     * @param row   the running totals
+     * @param value the value, from 0 to below the last total
+     * @return the index of the light the value falls on
+     */
+    private static int search(int[] row, int value) {
+        int low = 0;
+        int high = row.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (row[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
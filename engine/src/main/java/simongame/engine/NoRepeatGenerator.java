@@ -0,0 +1,63 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 5:50 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: NoRepeatGenerator
+ *
+ * Description: Picks steps at random but never the same light twice in a row
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * Picks every step uniformly from the lights other than the one just
+ * before it, so the same light never plays twice in a row. Each step
+ * costs one random draw: a draw from one fewer light is shifted past the
+ * previous light.
+ */
+public class NoRepeatGenerator implements SequenceGenerator {
+
+    /**
+     * Fills a block with lights picked uniformly from all but the light of
+     * the step before each one
+     *
+     * @param random     the game's random stream
+     * @param previous   the light of the step just before the block, or -1
+     *                   if the block starts the game
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights to pick from
+     */
+    @Override
+    public void fill(GameRandom random, int previous, int[] steps, int from, int to, int lightCount) {
+        for (int i = from; i < to; i++) {
+            int step;
+            if (previous < 0) {
+                step = random.nextInt(lightCount);
+            } else {
+                step = random.nextInt(lightCount - 1);
+                if (step >= previous) {
+                    step++;
+                }
+            }
+            steps[i] = step;
+            previous = step;
+        }
+    }
+
+    /**
+     * A getter method for the name
+     *
+     * @return {@code no-repeat}
+     */
+    @Override
+    public String getName() {
+        return "no-repeat";
+    }
+}
@@ -0,0 +1,144 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 2:45 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: PadColor
+ *
+ * Description: A enum class for the pad colors as packed ARGB values
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * The colors of the classic four pads, stored as packed ARGB values so the
+ * engine does not depend on any UI toolkit. Boards with more pads get a
+ * generated {@link #palette(int)}.
+ */
+public enum PadColor {
+    RED(0xFFFF0000),
+    YELLOW(0xFFFFFF00),
+    GREEN(0xFF008000),
+    BLUE(0xFF0000FF);
+
+    /**
+     * How much {@link #darker(int)} scales each color channel by
+     */
+    private static final double DARKER_FACTOR = 0.7;
+
+    /**
+     * The color of the pad as packed ARGB
+     */
+    private final int argb;
+
+    /**
+     * Constructor for the pad color enum
+     *
+     * @param argb the color of the pad as packed ARGB
+     */
+    private PadColor(int argb) {
+        this.argb = argb;
+    }
+
+    /**
+     * Get the color of the pad
+     *
+     * @return the color of the pad as packed ARGB
+     */
+    public int getArgb() {
+        return argb;
+    }
+
+    /**
+     * Returns the colors of a board. Up to four pads get the classic
+     * colors; larger boards get hues spread evenly around the color wheel,
+     * with every other pad a little darker so neighbors stay apart.
+     *
+     * @param count the number of pads
+     * @return the color of each pad as packed ARGB
+     */
+    public static int[] palette(int count) {
+        int[] argb = new int[count];
+        PadColor[] classic = values();
+        for (int i = 0; i < count; i++) {
+            if (count <= classic.length) {
+                argb[i] = classic[i].getArgb();
+            } else {
+                argb[i] = hsb((double) i / count, 0.85, i % 2 == 0 ? 1.0 : 0.8);
+            }
+        }
+        return argb;
+    }
+
+    /**
+     * Converts a hue, saturation and brightness to an opaque color
+     *
+     * @param hue        the hue between 0 and 1
+     * @param saturation the saturation between 0 and 1
+     * @param brightness the brightness between 0 and 1
+     * @return the color as packed ARGB
+     */
+    private static int hsb(double hue, double saturation, double brightness) {
+        double h = (hue - Math.floor(hue)) * 6;
+        int sector = (int) h;
+        double f = h - sector;
+        double p = brightness * (1 - saturation);
+        double q = brightness * (1 - saturation * f);
+        double t = brightness * (1 - saturation * (1 - f));
+        double r;
+        double g;
+        double b;
+        switch (sector) {
+            case 0:
+                r = brightness;
+                g = t;
+                b = p;
+                break;
+            case 1:
+                r = q;
+                g = brightness;
+                b = p;
+                break;
+            case 2:
+                r = p;
+                g = brightness;
+                b = t;
+                break;
+            case 3:
+                r = p;
+                g = q;
+                b = brightness;
+                break;
+            case 4:
+                r = t;
+                g = p;
+                b = brightness;
+                break;
+            default:
+                r = brightness;
+                g = p;
+                b = q;
+                break;
+        }
+        return 0xFF000000 | ((int) Math.round(r * 255) << 16) | ((int) Math.round(g * 255) << 8)
+                | (int) Math.round(b * 255);
+    }
+
+    /**
+     * Returns a darker version of a color, the same way a lit pad is
+     * darkened when it turns off
+     *
+     * @param argb the color as packed ARGB
+     * @return the darker color as packed ARGB
+     */
+    public static int darker(int argb) {
+        int r = (int) Math.round(((argb >>> 16) & 0xFF) * DARKER_FACTOR);
+        int g = (int) Math.round(((argb >>> 8) & 0xFF) * DARKER_FACTOR);
+        int b = (int) Math.round((argb & 0xFF) * DARKER_FACTOR);
+        return (argb & 0xFF000000) | (r << 16) | (g << 8) | b;
+    }
+}
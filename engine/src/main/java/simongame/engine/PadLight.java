@@ -0,0 +1,134 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 2:55 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: PadLight
+ *
+ * Description: A toolkit-free light that can turn on and off
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * A basic light that can turn on and off. The light keeps an on color and
+ * a darker off color as packed ARGB values and reports every change to a
+ * plain listener.
+ */
+public class PadLight {
+
+    /**
+     * A listener that is told when the light changes
+     */
+    public interface Listener {
+
+        /**
+         * Called after the light has turned on or off
+         *
+         * @param on   is the light now on?
+         * @param argb the light's current color as packed ARGB
+         */
+        void lightChanged(boolean on, int argb);
+    }
+
+    /**
+     * Is the light on?
+     */
+    private boolean on;
+
+    /**
+     * The light's onColor as packed ARGB
+     */
+    private final int onArgb;
+
+    /**
+     * The light's offColor as packed ARGB
+     */
+    private final int offArgb;
+
+    /**
+     * The listener to notify about changes, or null if there is none
+     */
+    private Listener listener;
+
+    /**
+     * Construct a new light that is currently set to its off color
+     *
+     * @param onArgb the "on" color of the light as packed ARGB
+     */
+    public PadLight(int onArgb) {
+        this.onArgb = onArgb;
+        this.offArgb = PadColor.darker(onArgb);
+    }
+
+    /**
+     * Is the light on?
+     *
+     * @return true if the light is on
+     */
+    public boolean isOn() {
+        return on;
+    }
+
+    /**
+     * Get the light's current color
+     *
+     * @return the current color as packed ARGB
+     */
+    public int getCurrentArgb() {
+        return on ? onArgb : offArgb;
+    }
+
+    /**
+     * Get the light's on color
+     *
+     * @return the on color as packed ARGB
+     */
+    public int getOnArgb() {
+        return onArgb;
+    }
+
+    /**
+     * Get the light's off color
+     *
+     * @return the off color as packed ARGB
+     */
+    public int getOffArgb() {
+        return offArgb;
+    }
+
+    /**
+     * Sets the listener to notify about changes
+     *
+     * @param listener the listener, or null to remove it
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Toggle the state of the light to be either on or off
+     */
+    public void toggle() {
+        setOn(!on);
+    }
+
+    /**
+     * Turn the light on or off
+     *
+     * @param on should the light be on?
+     */
+    public void setOn(boolean on) {
+        if (this.on == on) {
+            return;
+        }
+        this.on = on;
+        if (listener != null) {
+            listener.lightChanged(on, getCurrentArgb());
+        }
+    }
+}
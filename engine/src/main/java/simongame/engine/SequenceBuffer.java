@@ -0,0 +1,282 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 10:05 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: SequenceBuffer
+ *
+ * Description: A bit-packed store for a sequence of light indices
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * A compact sequence of light indices. Every step only takes as many bits
+ * as the number of lights needs, rounded up to a power of two: 2 bits with
+ * four lights, 4 with sixteen and 8 with sixty-four. Steps are packed into
+ * {@code long}s instead of being boxed into a list, and reads by index
+ * never allocate.
+ */
+public class SequenceBuffer {
+
+    /**
+     * The number of words the backing array grows by at a time
+     */
+    private static final int CHUNK_WORDS = 256;
+
+    /**
+     * A listener that is told about changes to the sequence
+     */
+    public interface Listener {
+
+        /**
+         * Called after a step has been appended
+         *
+         * @param index the index of the new step
+         */
+        void stepAdded(int index);
+
+        /**
+         * Called after the sequence has been cleared
+         *
+         * @param oldSize the size of the sequence before it was cleared
+         */
+        void sequenceCleared(int oldSize);
+
+        /**
+         * Called after a run of steps has been loaded in one go
+         *
+         * @param from the index of the first loaded step
+         * @param to   the index after the last loaded step
+         */
+        void stepsAdded(int from, int to);
+    }
+
+    /**
+     * The number of bits used to store a single step
+     */
+    private final int bitsPerStep;
+
+    /**
+     * The mask that turns a step index into its position within a word
+     */
+    private final int stepInWordMask;
+
+    /**
+     * The shift that turns a step index into a word index
+     */
+    private final int wordShift;
+
+    /**
+     * The mask that extracts a single step from a word
+     */
+    private final long stepMask;
+
+    /**
+     * The packed steps
+     */
+    private long[] words;
+
+    /**
+     * The number of steps in the sequence
+     */
+    private int size;
+
+    /**
+     * The listener to notify about changes, or null if there is none
+     */
+    private Listener listener;
+
+    /**
+     * Constructs an empty {@link SequenceBuffer} for four lights
+     */
+    public SequenceBuffer() {
+        this(4);
+    }
+
+    /**
+     * Constructs an empty {@link SequenceBuffer}
+     *
+     * @param lightCount the number of lights, from 1 to 65536
+     */
+    public SequenceBuffer(int lightCount) {
+        this.bitsPerStep = bitsPerStep(lightCount);
+        int stepsPerWord = Long.SIZE / bitsPerStep;
+        this.stepInWordMask = stepsPerWord - 1;
+        this.wordShift = Integer.numberOfTrailingZeros(stepsPerWord);
+        this.stepMask = (1L << bitsPerStep) - 1;
+        this.words = new long[CHUNK_WORDS];
+    }
+
+    /**
+     * Returns the number of bits a step takes. A power of two is used so
+     * steps never straddle two words.
+     *
+     * @param lightCount the number of lights, from 1 to 65536
+     * @return the number of bits per step
+     */
+    static int bitsPerStep(int lightCount) {
+        if (lightCount < 1 || lightCount > 1 << 16) {
+            throw new IllegalArgumentException("Light count out of range: " + lightCount);
+        }
+        int needed = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(lightCount - 1));
+        return Integer.highestOneBit(needed) == needed ? needed : Integer.highestOneBit(needed) << 1;
+    }
+
+    /**
+     * A getter method for the number of steps in the sequence
+     *
+     * @return the number of steps
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is the sequence empty?
+     *
+     * @return true if there are no steps in the sequence
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the light index stored at the given step
+     *
+     * @param index the step to read
+     * @return the light index at that step
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return getUnchecked(index);
+    }
+
+    /**
+     * Returns the value packed at the given step without checking it
+     * against the size. Cleared steps stay readable until they are
+     * overwritten, which lets a listener report the steps that were just
+     * cleared.
+     *
+     * @param index the step to read
+     * @return the light index at that step
+     */
+    public int getUnchecked(int index) {
+        int shift = (index & stepInWordMask) * bitsPerStep;
+        return (int) ((words[index >>> wordShift] >>> shift) & stepMask);
+    }
+
+    /**
+     * Appends a step to the end of the sequence
+     *
+     * @param lightIndex the light index to append
+     */
+    public void add(int lightIndex) {
+        if (lightIndex < 0 || lightIndex > stepMask) {
+            throw new IllegalArgumentException("Light index out of range: " + lightIndex);
+        }
+        int wordIndex = size >>> wordShift;
+        if (wordIndex == words.length) {
+            grow();
+        }
+
+        // Clear the slot first since cleared sequences leave old bits behind
+        int shift = (size & stepInWordMask) * bitsPerStep;
+        words[wordIndex] = (words[wordIndex] & ~(stepMask << shift)) | ((long) lightIndex << shift);
+
+        int index = size++;
+        if (listener != null) {
+            listener.stepAdded(index);
+        }
+    }
+
+    /**
+     * Removes every step from the sequence. The backing storage is kept so
+     * that the next game does not have to grow it again.
+     */
+    public void clear() {
+        int oldSize = size;
+        size = 0;
+        if (listener != null && oldSize > 0) {
+            listener.sequenceCleared(oldSize);
+        }
+    }
+
+    /**
+     * A getter method for the number of bits a step takes
+     *
+     * @return the number of bits per step
+     */
+    public int getBitsPerStep() {
+        return bitsPerStep;
+    }
+
+    /**
+     * A getter method for the number of words the steps are packed in
+     *
+     * @return the number of words in use
+     */
+    public int getWordCount() {
+        return (size + stepInWordMask) >>> wordShift;
+    }
+
+    /**
+     * Copies the packed steps
+     *
+     * @param destination the array to copy into, at least
+     *                    {@link #getWordCount()} long
+     */
+    public void copyWords(long[] destination) {
+        System.arraycopy(words, 0, destination, 0, getWordCount());
+    }
+
+    /**
+     * Replaces the sequence with packed steps, such as ones saved with
+     * {@link #copyWords(long[])}. The words are copied in bulk straight
+     * from the buffer, one copy with no decoding.
+     *
+     * @param source the packed steps, read from its position
+     * @param size   the number of steps
+     */
+    public void load(LongBuffer source, int size) {
+        // Clear first, the listener reads the old steps as they are removed
+        clear();
+        int wordCount = (size + stepInWordMask) >>> wordShift;
+        if (wordCount > words.length) {
+            words = new long[(wordCount + CHUNK_WORDS - 1) / CHUNK_WORDS * CHUNK_WORDS];
+        }
+        source.get(words, 0, wordCount);
+        this.size = size;
+        if (listener != null && size > 0) {
+            listener.stepsAdded(0, size);
+        }
+    }
+
+    /**
+     * Sets the listener to notify about changes
+     *
+     * @param listener the listener, or null to remove it
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Grows the backing array by at least one chunk
+     */
+    private void grow() {
+        int newLength = words.length + Math.max(CHUNK_WORDS, words.length >> 1);
+        // Round up to a whole number of chunks
+        newLength = (newLength + CHUNK_WORDS - 1) / CHUNK_WORDS * CHUNK_WORDS;
+        words = Arrays.copyOf(words, newLength);
+    }
+}
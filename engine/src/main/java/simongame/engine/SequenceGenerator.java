@@ -0,0 +1,107 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 5:40 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: SequenceGenerator
+ *
+ * Description: A strategy for picking the steps of a game's sequence
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+import java.util.List;
+
+/**
+ * A strategy for picking the lights of a game's sequence. The engine asks
+ * for steps a block at a time, ahead of need, and keeps them in a
+ * primitive buffer, so adding a step to a round only reads the next one.
+ * Every random choice comes from the game's {@link GameRandom}, so the
+ * same seed and the same presses always give the same game.
+ * <p>
+ * A strategy that learns from the player hears about every press through
+ * {@link #pressed(int, boolean)} and must update itself in constant or
+ * logarithmic time, never by going back over the history. A generator
+ * belongs to one engine and is only called on its thread.
+ * <p>
+ * A generator built by {@link #named(String, int)} has a name, which is
+ * what journals and snapshots record so a game can be played again with
+ * the same generator.
+ */
+public interface SequenceGenerator {
+
+    /**
+     * The names {@link #named(String, int)} knows, in the order of the
+     * ids journals and snapshots store them as
+     */
+    List<String> NAMES = List.of("uniform", "no-repeat", "markov", "adaptive");
+
+    /**
+     * Returns a new generator by name
+     *
+     * @param name       {@code uniform}, {@code no-repeat}, {@code markov}
+     *                   or {@code adaptive}
+     * @param lightCount the number of lights
+     * @return the generator
+     */
+    static SequenceGenerator named(String name, int lightCount) {
+        switch (name) {
+            case "uniform":
+                return new UniformGenerator();
+            case "no-repeat":
+                return new NoRepeatGenerator();
+            case "markov":
+                return MarkovGenerator.standard(lightCount);
+            case "adaptive":
+                return new AdaptiveGenerator(lightCount);
+            default:
+                throw new IllegalArgumentException("Unknown generator " + name);
+        }
+    }
+
+    /**
+     * Returns the id journals and snapshots store a generator as
+     *
+     * @param generator the generator
+     * @return the index of its name in {@link #NAMES}, or -1 if it has
+     * no name
+     */
+    static int idOf(SequenceGenerator generator) {
+        String name = generator.getName();
+        return name == null ? -1 : NAMES.indexOf(name);
+    }
+
+    /**
+     * Fills a block of upcoming steps with light indices
+     *
+     * @param random     the game's random stream
+     * @param previous   the light of the step just before the block, or -1
+     *                   if the block starts the game
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights to pick from
+     */
+    void fill(GameRandom random, int previous, int[] steps, int from, int to, int lightCount);
+
+    /**
+     * A getter method for the name
+     *
+     * @return the name {@link #named(String, int)} builds this generator
+     * from, or null if it can't be built by name
+     */
+    String getName();
+
+    /**
+     * Called after every press of a game in progress
+     *
+     * @param expectedLight the light the player should have pressed
+     * @param correct       true if the player pressed it
+     */
+    default void pressed(int expectedLight, boolean correct) {
+    }
+}
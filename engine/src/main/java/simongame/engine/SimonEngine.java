@@ -0,0 +1,524 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 3:15 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: SimonEngine
+ *
+ * Description: The rules of the Simon game without any UI toolkit
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+
+/**
+ * The rules of the Simon game. The engine only keeps primitive state and
+ * reports changes through {@link EngineListener}s, so it runs anywhere
+ * without the JavaFX toolkit.
+ */
+public class SimonEngine {
+
+    /**
+     * The result of a press that matched the expected light
+     */
+    public static final int INPUT_CORRECT = 0;
+
+    /**
+     * The result of a press that matched the expected light and finished
+     * the round. The next step has already been added to the sequence.
+     */
+    public static final int INPUT_ROUND_COMPLETE = 1;
+
+    /**
+     * The result of a press that did not match the expected light
+     */
+    public static final int INPUT_WRONG = 2;
+
+    /**
+     * The result of a press made while the engine isn't waiting for input
+     */
+    public static final int INPUT_IGNORED = 3;
+
+    /**
+     * The state before the first game and after a game is abandoned
+     */
+    public static final int STATE_IDLE = 0;
+
+    /**
+     * The state while the sequence is being played to the user. Presses
+     * are ignored until {@link #endPlayback()} is called.
+     */
+    public static final int STATE_PLAYBACK = 1;
+
+    /**
+     * The state while the engine is waiting for the user to press lights
+     */
+    public static final int STATE_AWAIT_INPUT = 2;
+
+    /**
+     * The state after the user pressed the wrong light
+     */
+    public static final int STATE_GAME_OVER = 3;
+
+    /**
+     * The number of upcoming steps generated at a time
+     */
+    private static final int STEP_BLOCK = 64;
+
+    /**
+     * Our array of {@link PadLight} objects for our Simon game
+     */
+    private final PadLight[] lights;
+
+    /**
+     * Our packed sequence of light indices that represents the game sequence
+     */
+    private final SequenceBuffer gameSequence;
+
+    /**
+     * The listeners to notify about changes
+     */
+    private final ArrayList<EngineListener> listeners = new ArrayList<>();
+
+    /**
+     * The index of the step the user is expected to press next
+     */
+    private int inputCursor;
+
+    /**
+     * The current state, one of the {@code STATE_} constants
+     */
+    private int state = STATE_IDLE;
+
+    /**
+     * The stream every game's seed is drawn from
+     */
+    private final GameRandom master;
+
+    /**
+     * The random stream of the current game
+     */
+    private GameRandom random;
+
+    /**
+     * Upcoming steps, generated a block at a time ahead of need
+     */
+    private final int[] upcoming = new int[STEP_BLOCK];
+
+    /**
+     * Picks the upcoming steps
+     */
+    private SequenceGenerator generator;
+
+    /**
+     * The index of the next upcoming step to use
+     */
+    private int upcomingIndex = STEP_BLOCK;
+
+    /**
+     * The state of the random stream before the current block of upcoming
+     * steps was generated
+     */
+    private long blockState;
+
+    /**
+     * The current score
+     */
+    private int score;
+
+    /**
+     * Constructs an engine with one light for every {@link PadColor} and
+     * a master seed that is different on every run
+     */
+    public SimonEngine() {
+        this(new SplitMixRandom(SplitMixRandom.randomSeed()));
+    }
+
+    /**
+     * Constructs an engine with one light for every {@link PadColor}
+     *
+     * @param master the stream every game's seed is drawn from
+     */
+    public SimonEngine(GameRandom master) {
+        this(master, PadColor.values().length);
+    }
+
+    /**
+     * Constructs an engine with any number of lights, colored from
+     * {@link PadColor#palette(int)}
+     *
+     * @param master     the stream every game's seed is drawn from
+     * @param lightCount the number of lights, at least 2
+     */
+    public SimonEngine(GameRandom master, int lightCount) {
+        this(master, lightCount, new UniformGenerator());
+    }
+
+    /**
+     * Constructs an engine with any number of lights and a strategy for
+     * picking the steps of each game
+     *
+     * @param master     the stream every game's seed is drawn from
+     * @param lightCount the number of lights, at least 2
+     * @param generator  picks the steps of each game
+     */
+    public SimonEngine(GameRandom master, int lightCount, SequenceGenerator generator) {
+        if (lightCount < 2) {
+            throw new IllegalArgumentException("A board needs at least 2 lights, not " + lightCount);
+        }
+        this.master = master;
+        this.random = master.split();
+        this.generator = generator;
+        this.gameSequence = new SequenceBuffer(lightCount);
+
+        int[] colors = PadColor.palette(lightCount);
+        this.lights = new PadLight[lightCount];
+        for (int i = 0; i < lightCount; i++) {
+            this.lights[i] = new PadLight(colors[i]);
+        }
+    }
+
+    /**
+     * Adds a listener to notify about changes
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(EngineListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(EngineListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * A getter method for the number of lights
+     *
+     * @return the number of lights
+     */
+    public int getLightCount() {
+        return lights.length;
+    }
+
+    /**
+     * A getter method for the light at index i
+     *
+     * @param i the index of the light
+     * @return the light at index i
+     */
+    public PadLight getLight(int i) {
+        return lights[i];
+    }
+
+    /**
+     * Our packed sequence of light indices that represents the game sequence
+     *
+     * @return the game sequence
+     */
+    public SequenceBuffer getGameSequence() {
+        return gameSequence;
+    }
+
+    /**
+     * A getter method for the input cursor
+     *
+     * @return the index of the step the user is expected to press next
+     */
+    public int getInputCursor() {
+        return inputCursor;
+    }
+
+    /**
+     * Is a game in progress?
+     *
+     * @return true if a game is in progress
+     */
+    public boolean isGameInProgress() {
+        return state == STATE_PLAYBACK || state == STATE_AWAIT_INPUT;
+    }
+
+    /**
+     * A getter method for the state
+     *
+     * @return one of {@link #STATE_IDLE}, {@link #STATE_PLAYBACK},
+     * {@link #STATE_AWAIT_INPUT} or {@link #STATE_GAME_OVER}
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * A getter method for the seed of the current game. Starting a new
+     * game with this seed plays the same sequence again.
+     *
+     * @return the seed of the current game
+     */
+    public long getGameSeed() {
+        return random.getSeed();
+    }
+
+    /**
+     * A getter method for the score
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * A getter method for the state of the random stream that generates
+     * the current block of upcoming steps. Together with
+     * {@link #getUpcomingIndex()} it lets a game carry on exactly where it
+     * left off.
+     *
+     * @return the state, see {@link GameRandom#getState()}
+     */
+    public long getRandomState() {
+        return upcomingIndex == STEP_BLOCK ? random.getState() : blockState;
+    }
+
+    /**
+     * A getter method for the index of the next upcoming step in its block
+     *
+     * @return the index, or the block size if the block is used up
+     */
+    public int getUpcomingIndex() {
+        return upcomingIndex;
+    }
+
+    /**
+     * A getter method for the generator
+     *
+     * @return the strategy that picks the steps of each game
+     */
+    public SequenceGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Sets the strategy that picks the steps. The rest of the current
+     * block is thrown away, so the next step already comes from the new
+     * generator.
+     *
+     * @param generator the strategy that picks the steps of each game
+     */
+    public void setGenerator(SequenceGenerator generator) {
+        this.generator = generator;
+        upcomingIndex = STEP_BLOCK;
+    }
+
+    /**
+     * A method to start a new game with a seed drawn from the master stream
+     */
+    public void startNewGame() {
+        startNewGame(master.nextLong());
+    }
+
+    /**
+     * A method to start a new game whose sequence comes from the given seed.
+     * The engine waits for input straight away; a UI that plays the
+     * sequence first calls {@link #beginPlayback()}.
+     *
+     * @param seed the seed of the game
+     */
+    public void startNewGame(long seed) {
+        random = random.withSeed(seed);
+        upcomingIndex = STEP_BLOCK;
+        gameSequence.clear();
+        inputCursor = 0;
+        setState(STATE_AWAIT_INPUT);
+        setScore(0);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).gameStarted(seed);
+        }
+        generateNextInSequence();
+    }
+
+    /**
+     * A method to carry on a saved game without replaying it. The packed
+     * sequence is loaded in bulk, and the random stream is put back at the
+     * start of its block, so the steps still to come are the ones the game
+     * would have had. The game waits for the first press of the round.
+     * A generator that learns from the presses, like
+     * {@link AdaptiveGenerator}, picks the block again with the weights it
+     * has now, so its steps may differ from the ones the game would have
+     * had.
+     *
+     * @param seed          the seed of the game
+     * @param randomState   the state from {@link #getRandomState()}
+     * @param upcomingIndex the index from {@link #getUpcomingIndex()}
+     * @param words         the packed sequence, read from its position
+     * @param size          the number of steps in the sequence, at least 1
+     * @param score         the score
+     */
+    public void resumeGame(long seed, long randomState, int upcomingIndex,
+                           LongBuffer words, int size, int score) {
+        if (size < 1 || upcomingIndex < 0 || upcomingIndex > STEP_BLOCK) {
+            throw new IllegalArgumentException("Not a game in progress: " + size + " steps");
+        }
+        gameSequence.load(words, size);
+        random = random.withState(seed, randomState);
+        blockState = randomState;
+        this.upcomingIndex = upcomingIndex;
+        if (upcomingIndex < STEP_BLOCK) {
+            // Generate the block again, the steps already used are skipped
+            int blockStart = size - upcomingIndex;
+            int previous = blockStart > 0 ? gameSequence.get(blockStart - 1) : -1;
+            generator.fill(random, previous, upcoming, 0, STEP_BLOCK, lights.length);
+        }
+        inputCursor = 0;
+        setState(STATE_AWAIT_INPUT);
+        setScore(score);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).gameResumed(seed, size);
+        }
+    }
+
+    /**
+     * Marks the start of the sequence's playback. Presses are ignored until
+     * {@link #endPlayback()}, so nothing the user clicks while the lights
+     * flash counts as an answer.
+     *
+     * @return true if the engine was waiting for input and is now playing
+     * back, false if no game is in progress
+     */
+    public boolean beginPlayback() {
+        if (state != STATE_AWAIT_INPUT) return false;
+        inputCursor = 0;
+        setState(STATE_PLAYBACK);
+        return true;
+    }
+
+    /**
+     * Marks the end of the sequence's playback, after which the engine
+     * waits for input again
+     *
+     * @return true if the engine was playing back
+     */
+    public boolean endPlayback() {
+        if (state != STATE_PLAYBACK) return false;
+        setState(STATE_AWAIT_INPUT);
+        return true;
+    }
+
+    /**
+     * A method to abandon the current game without ending it, as when the
+     * user quits. The listeners are not told about a game over.
+     */
+    public void abandonGame() {
+        setState(STATE_IDLE);
+    }
+
+    /**
+     * A method to generate the next light in the sequence. The generator
+     * fills a block of upcoming steps at a time, so most rounds only read
+     * the next one.
+     */
+    public void generateNextInSequence() {
+        if (upcomingIndex == STEP_BLOCK) {
+            // Generate the next block of steps in one go
+            int size = gameSequence.size();
+            blockState = random.getState();
+            generator.fill(random, size > 0 ? gameSequence.get(size - 1) : -1,
+                    upcoming, 0, STEP_BLOCK, lights.length);
+            upcomingIndex = 0;
+        }
+        addStep(upcoming[upcomingIndex++]);
+    }
+
+    /**
+     * A method to add user input. Only the newest press is compared
+     * against the expected light, so each press takes constant time.
+     *
+     * @param lightIndex the index of the light the user pressed
+     * @return one of {@link #INPUT_CORRECT}, {@link #INPUT_ROUND_COMPLETE},
+     * {@link #INPUT_WRONG} or {@link #INPUT_IGNORED}
+     */
+    public int addUserInput(int lightIndex) {
+        if (state != STATE_AWAIT_INPUT) return INPUT_IGNORED;
+        int expected = gameSequence.get(inputCursor);
+        generator.pressed(expected, expected == lightIndex);
+        int result;
+        if (expected != lightIndex) {
+            setState(STATE_GAME_OVER);
+            result = INPUT_WRONG;
+        } else if (++inputCursor < gameSequence.size()) {
+            result = INPUT_CORRECT;
+        } else {
+            inputCursor = 0;
+            setScore(score + 1); // Increment the score
+            result = INPUT_ROUND_COMPLETE;
+        }
+
+        // Listeners hear about the press before the step it earned is added
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).userInput(lightIndex, result);
+        }
+        if (result == INPUT_ROUND_COMPLETE) {
+            generateNextInSequence();
+        } else if (result == INPUT_WRONG) {
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).gameOver(score);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A method to extend the sequence
+     */
+    public void extendSequence() {
+        generateNextInSequence();
+    }
+
+    /**
+     * Appends a step to the sequence and tells the listeners
+     *
+     * @param lightIndex the light index of the new step
+     */
+    private void addStep(int lightIndex) {
+        gameSequence.add(lightIndex);
+        int index = gameSequence.size() - 1;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).stepAdded(index, lightIndex);
+        }
+    }
+
+    /**
+     * Sets the score and tells the listeners
+     *
+     * @param score the new score
+     */
+    private void setScore(int score) {
+        this.score = score;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).scoreChanged(score);
+        }
+    }
+
+    /**
+     * Sets the state and tells the listeners, if it changed
+     *
+     * @param state the new state
+     */
+    private void setState(int state) {
+        int previous = this.state;
+        if (previous == state) return;
+        this.state = state;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).stateChanged(previous, state);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 6:35 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: SplitMixRandom
+ *
+ * Description: The default game random, built on the SplitMix64 generator
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * The default {@link GameRandom}. It uses the same SplitMix64 algorithm as
+ * {@link java.util.SplittableRandom}, but keeps the seed it started from
+ * so a game can be reproduced, and fills blocks of steps from as few
+ * random bits as possible.
+ */
+public final class SplitMixRandom implements GameRandom {
+
+    /**
+     * The odd constant added to the state for every value
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The seed this stream started from
+     */
+    private final long seed;
+
+    /**
+     * The current state
+     */
+    private long state;
+
+    /**
+     * Constructs a stream that starts from the given seed
+     *
+     * @param seed the seed to start from
+     */
+    public SplitMixRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * Returns a seed that is different on every call, for games that do
+     * not need to be reproduced from a chosen seed
+     *
+     * @return a new seed
+     */
+    public static long randomSeed() {
+        return mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime());
+    }
+
+    /**
+     * A getter method for the seed this stream started from
+     *
+     * @return the seed
+     */
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a new stream that starts from the given seed
+     *
+     * @param seed the seed to start from
+     * @return the new stream
+     */
+    @Override
+    public GameRandom withSeed(long seed) {
+        return new SplitMixRandom(seed);
+    }
+
+    /**
+     * A getter method for the current state
+     *
+     * @return the state
+     */
+    @Override
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Returns a new stream that carries on from a saved state
+     *
+     * @param seed  the seed the saved stream started from
+     * @param state the saved state
+     * @return the new stream
+     */
+    @Override
+    public GameRandom withState(long seed, long state) {
+        SplitMixRandom random = new SplitMixRandom(seed);
+        random.state = state;
+        return random;
+    }
+
+    /**
+     * Returns the next random value
+     *
+     * @return the next random value
+     */
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Fills a block of upcoming steps with light indices. When the number
+     * of lights is a power of two, each random value is cut into as many
+     * steps as it has bits for.
+     *
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights to pick from
+     */
+    @Override
+    public void nextSteps(int[] steps, int from, int to, int lightCount) {
+        if (lightCount < 2 || Integer.bitCount(lightCount) != 1) {
+            GameRandom.super.nextSteps(steps, from, to, lightCount);
+            return;
+        }
+
+        int bits = Integer.numberOfTrailingZeros(lightCount);
+        int stepsPerValue = Long.SIZE / bits;
+        int mask = lightCount - 1;
+        int i = from;
+        while (i < to) {
+            long value = nextLong();
+            int end = Math.min(to, i + stepsPerValue);
+            for (; i < end; i++) {
+                steps[i] = (int) value & mask;
+                value >>>= bits;
+            }
+        }
+    }
+
+    /**
+     * Mixes the bits of a value, the SplitMix64 output function
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
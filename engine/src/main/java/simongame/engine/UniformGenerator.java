@@ -0,0 +1,50 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 5:45 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: UniformGenerator
+ *
+ * Description: Picks every step uniformly at random
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+/**
+ * The classic strategy: every light is equally likely at every step, no
+ * matter what came before. Blocks are filled with
+ * {@link GameRandom#nextSteps(int[], int, int, int)}, which cuts several
+ * steps out of each random value when it can.
+ */
+public class UniformGenerator implements SequenceGenerator {
+
+    /**
+     * Fills a block with lights picked uniformly, several steps per random
+     * value when the light count allows
+     *
+     * @param random     the game's random stream
+     * @param previous   the light of the step just before the block, unused
+     * @param steps      the array to fill
+     * @param from       the first index to fill
+     * @param to         the index after the last one to fill
+     * @param lightCount the number of lights to pick from
+     */
+    @Override
+    public void fill(GameRandom random, int previous, int[] steps, int from, int to, int lightCount) {
+        random.nextSteps(steps, from, to, lightCount);
+    }
+
+    /**
+     * A getter method for the name
+     *
+     * @return {@code uniform}
+     */
+    @Override
+    public String getName() {
+        return "uniform";
+    }
+}
@@ -0,0 +1,187 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 9:10 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.journal
+ * Class: JournalFormat
+ *
+ * Description: The binary layout of a replay journal file
+ *
+ * ****************************************
+ */
+
+package simongame.engine.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The binary layout shared by {@link ReplayJournal} and {@link ReplayReader}.
+ * <p>
+ * A journal starts with a fixed header, followed by data regions of
+ * {@code regionSize} bytes that are memory-mapped one at a time. A record
+ * never crosses a region boundary; the rest of a region that can't hold
+ * the next record is left as zero bytes, which read as {@link #SKIP}.
+ * <p>
+ * Every record starts with a tag byte. The top two bits hold the kind of
+ * record and the low six bits hold a light index where the record has one:
+ * <pre>
+ * START  0x01 lightCount:u8 generator:u8 seed:i64 epochMillis:i64 [weights:u8 * lightCount]
+ * END    0x02 score:varint
+ * STEP   0x40 | light
+ * PRESS  0x80 | light  deltaNanos:varint
+ * </pre>
+ * The generator is the index of the game's generator in
+ * {@link simongame.engine.SequenceGenerator#NAMES}, or {@link #CUSTOM}
+ * for one that can't be built by name. An {@code adaptive} game is
+ * followed by the weight of each light when it started. Version 1
+ * journals have no generator and no weights; every game in them is
+ * {@code uniform}.
+ * <p>
+ * Varints are unsigned LEB128. All multi-byte values are big-endian.
+ */
+final class JournalFormat {
+
+    /**
+     * The magic number at the start of every journal, "SMNJ"
+     */
+    static final int MAGIC = 0x534D4E4A;
+
+    /**
+     * The version of the format
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The first version whose START records hold the generator
+     */
+    static final int GENERATOR_VERSION = 2;
+
+    /**
+     * The offset of the magic number in the header
+     */
+    static final int MAGIC_OFFSET = 0;
+
+    /**
+     * The offset of the version in the header
+     */
+    static final int VERSION_OFFSET = 4;
+
+    /**
+     * The offset of the region size in the header
+     */
+    static final int REGION_SIZE_OFFSET = 8;
+
+    /**
+     * The offset of the committed length in the header. Everything before
+     * this file position holds complete records.
+     */
+    static final int COMMITTED_OFFSET = 16;
+
+    /**
+     * The size of the header
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * The default size of a data region
+     */
+    static final int DEFAULT_REGION_SIZE = 8 << 20;
+
+    /**
+     * The largest record that can be written, a START record with the
+     * weights of 64 lights
+     */
+    static final int MAX_RECORD_SIZE = 19 + 64;
+
+    /**
+     * The generator of a game whose generator can't be built by name, so
+     * the game can't be replayed
+     */
+    static final int CUSTOM = 0xFF;
+
+    /**
+     * The mask that selects the kind of record from a tag
+     */
+    static final int KIND_MASK = 0xC0;
+
+    /**
+     * The mask that selects the light index from a tag
+     */
+    static final int LIGHT_MASK = 0x3F;
+
+    /**
+     * The tag of the padding at the end of a region
+     */
+    static final int SKIP = 0x00;
+
+    /**
+     * The tag of a game start
+     */
+    static final int START = 0x01;
+
+    /**
+     * The tag of a game end
+     */
+    static final int END = 0x02;
+
+    /**
+     * The kind of a generated step
+     */
+    static final int STEP = 0x40;
+
+    /**
+     * The kind of a user press
+     */
+    static final int PRESS = 0x80;
+
+    /**
+     * Not instantiable
+     */
+    private JournalFormat() {
+    }
+
+    /**
+     * Returns the file position of a data region
+     *
+     * @param region     the index of the region
+     * @param regionSize the size of a region
+     * @return the file position where the region starts
+     */
+    static long regionStart(long region, int regionSize) {
+        return HEADER_SIZE + region * regionSize;
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint
+     *
+     * @param buffer where to write the value
+     * @param value  the value to write, treated as unsigned
+     */
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint
+     *
+     * @param buffer where to read the value from
+     * @return the value
+     */
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,382 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 9:30 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.journal
+ * Class: ReplayJournal
+ *
+ * Description: An append-only, memory-mapped journal of game sessions
+ *
+ * ****************************************
+ */
+
+package simongame.engine.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import simongame.engine.AdaptiveGenerator;
+import simongame.engine.EngineListener;
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+
+/**
+ * Records every game an engine plays into an append-only journal file,
+ * in the format described by {@link JournalFormat}. Add it to a
+ * {@link SimonEngine} as a listener and it writes a record for each game
+ * start, generated step, user press and game end. A game start records
+ * the engine's {@link SequenceGenerator}, and the weights of an
+ * {@link AdaptiveGenerator}, so the game can be played again exactly.
+ * <p>
+ * Records are written straight into a memory-mapped region, so writing
+ * one is a handful of memory stores with no system call and no
+ * allocation. The next region is mapped ahead of time on a background
+ * thread, which also flushes the mapping to disk every second, so the
+ * thread playing the game never waits on the disk.
+ * <p>
+ * A journal is written by one thread at a time, the thread that plays
+ * the engine's games. A resumed game was not started in the journal, so
+ * it can't be replayed and isn't recorded; recording carries on with the
+ * next new game.
+ * <p>
+ * A journal written by an older version of the format is moved aside,
+ * to the same name ending in {@code .v} and its version, and a new one
+ * is started.
+ */
+public class ReplayJournal implements EngineListener, AutoCloseable {
+
+    /**
+     * The file being written
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of a data region
+     */
+    private final int regionSize;
+
+    /**
+     * The mapped header, which holds the committed length
+     */
+    private final MappedByteBuffer header;
+
+    /**
+     * The region records are currently written to. Only touched by the
+     * thread playing the games.
+     */
+    private MappedByteBuffer region;
+
+    /**
+     * The current region as the background thread sees it when it
+     * flushes. Volatile, so a region moved on to by {@link #reserve(int)}
+     * is the one flushed next, while writing records never reads a
+     * volatile field.
+     */
+    private volatile MappedByteBuffer flushRegion;
+
+    /**
+     * The index of the current region
+     */
+    private long regionIndex;
+
+    /**
+     * The next region, being mapped in the background
+     */
+    private CompletableFuture<MappedByteBuffer> nextRegion;
+
+    /**
+     * The thread that maps regions ahead of time and flushes to disk
+     */
+    private final ScheduledExecutorService background;
+
+    /**
+     * The time of the last press or game start, from {@link System#nanoTime()}
+     */
+    private long lastNanos;
+
+    /**
+     * The engine being recorded
+     */
+    private final SimonEngine engine;
+
+    /**
+     * The number of lights of the engine being recorded
+     */
+    private final int lightCount;
+
+    /**
+     * Is the game in progress being recorded? Not if it was resumed.
+     */
+    private boolean recording = true;
+
+    /**
+     * Opens a journal, appending to it if the file already exists
+     *
+     * @param file   the journal file
+     * @param engine the engine being recorded
+     * @throws IOException if the file can't be opened or isn't a journal
+     */
+    public ReplayJournal(Path file, SimonEngine engine) throws IOException {
+        this(file, engine, JournalFormat.DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Opens a journal with the given region size, appending to it if the
+     * file already exists
+     *
+     * @param file       the journal file
+     * @param engine     the engine being recorded
+     * @param regionSize the size of a data region for a new file
+     * @throws IOException if the file can't be opened or isn't a journal
+     */
+    public ReplayJournal(Path file, SimonEngine engine, int regionSize) throws IOException {
+        int lightCount = engine.getLightCount();
+        if (lightCount < 1 || lightCount > JournalFormat.LIGHT_MASK + 1) {
+            throw new IllegalArgumentException("A journal can record 1 to 64 lights, not " + lightCount);
+        }
+        this.engine = engine;
+        this.lightCount = lightCount;
+        retireOlderVersion(file);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, JournalFormat.HEADER_SIZE);
+
+        long committed;
+        if (header.getInt(JournalFormat.MAGIC_OFFSET) == 0) {
+            // A new file
+            header.putInt(JournalFormat.MAGIC_OFFSET, JournalFormat.MAGIC);
+            header.putInt(JournalFormat.VERSION_OFFSET, JournalFormat.VERSION);
+            header.putInt(JournalFormat.REGION_SIZE_OFFSET, regionSize);
+            committed = JournalFormat.HEADER_SIZE;
+            header.putLong(JournalFormat.COMMITTED_OFFSET, committed);
+        } else if (header.getInt(JournalFormat.MAGIC_OFFSET) != JournalFormat.MAGIC
+                || header.getInt(JournalFormat.VERSION_OFFSET) != JournalFormat.VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a replay journal");
+        } else {
+            committed = header.getLong(JournalFormat.COMMITTED_OFFSET);
+        }
+        this.regionSize = header.getInt(JournalFormat.REGION_SIZE_OFFSET);
+
+        this.background = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simon-journal");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // Carry on from the end of the committed records
+        this.regionIndex = (committed - JournalFormat.HEADER_SIZE) / this.regionSize;
+        this.region = map(regionIndex);
+        this.region.position((int) (committed - JournalFormat.regionStart(regionIndex, this.regionSize)));
+        this.flushRegion = region;
+        this.nextRegion = mapAsync(regionIndex + 1);
+
+        background.scheduleWithFixedDelay(this::force, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Moves a journal written by an older version of the format aside
+     *
+     * @param file the journal file
+     * @throws IOException if the file can't be read or moved
+     */
+    private static void retireOlderVersion(Path file) throws IOException {
+        int version;
+        try (FileChannel old = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer start = ByteBuffer.allocate(8);
+            if (old.read(start, 0) < start.capacity()
+                    || start.getInt(JournalFormat.MAGIC_OFFSET) != JournalFormat.MAGIC) {
+                // New, empty or not a journal; the constructor sorts it out
+                return;
+            }
+            version = start.getInt(JournalFormat.VERSION_OFFSET);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (version < JournalFormat.VERSION) {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".v" + version),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Records the start of a game, with the generator that picks its steps
+     *
+     * @param seed the seed the game's sequence comes from
+     */
+    @Override
+    public void gameStarted(long seed) {
+        recording = true;
+        lastNanos = System.nanoTime();
+        SequenceGenerator generator = engine.getGenerator();
+        int id = SequenceGenerator.idOf(generator);
+        reserve(JournalFormat.MAX_RECORD_SIZE);
+        region.put((byte) JournalFormat.START);
+        region.put((byte) lightCount);
+        region.put((byte) (id < 0 ? JournalFormat.CUSTOM : id));
+        region.putLong(seed);
+        region.putLong(System.currentTimeMillis());
+        if (generator instanceof AdaptiveGenerator) {
+            // The weights the game starts with, which earlier games moved
+            AdaptiveGenerator adaptive = (AdaptiveGenerator) generator;
+            for (int i = 0; i < lightCount; i++) {
+                region.put((byte) adaptive.getWeight(i));
+            }
+        }
+        commit();
+    }
+
+    /**
+     * Stops recording until the next new game, since the journal has
+     * nothing to replay a resumed game from
+     *
+     * @param seed  the seed the game's sequence comes from
+     * @param steps the number of steps in the sequence
+     */
+    @Override
+    public void gameResumed(long seed, int steps) {
+        recording = false;
+    }
+
+    /**
+     * Records a generated step
+     *
+     * @param index      the index of the new step
+     * @param lightIndex the light index of the new step
+     */
+    @Override
+    public void stepAdded(int index, int lightIndex) {
+        if (!recording) return;
+        reserve(1);
+        region.put((byte) (JournalFormat.STEP | lightIndex));
+        commit();
+    }
+
+    /**
+     * Records a user press with the time since the previous press, or
+     * since the game started for the first press
+     *
+     * @param lightIndex the light index the user pressed
+     * @param result     the result of the press
+     */
+    @Override
+    public void userInput(int lightIndex, int result) {
+        if (!recording) return;
+        long now = System.nanoTime();
+        reserve(11);
+        region.put((byte) (JournalFormat.PRESS | lightIndex));
+        JournalFormat.putVarLong(region, now - lastNanos);
+        lastNanos = now;
+        commit();
+    }
+
+    /**
+     * Records the end of a game
+     *
+     * @param score the final score
+     */
+    @Override
+    public void gameOver(int score) {
+        if (!recording) return;
+        reserve(6);
+        region.put((byte) JournalFormat.END);
+        JournalFormat.putVarLong(region, score);
+        commit();
+    }
+
+    /**
+     * Makes sure the current region has room for a record, moving on to
+     * the next region if it doesn't
+     *
+     * @param size the most bytes the record can take
+     */
+    private void reserve(int size) {
+        if (region.remaining() >= size) {
+            return;
+        }
+        // The rest of the region stays zero, which reads as SKIP
+        MappedByteBuffer full = region;
+        region = nextRegion.join();
+        flushRegion = region;
+        regionIndex++;
+        nextRegion = mapAsync(regionIndex + 1);
+        background.execute(full::force);
+    }
+
+    /**
+     * Publishes the records written so far by moving the committed length
+     */
+    private void commit() {
+        header.putLong(JournalFormat.COMMITTED_OFFSET,
+                JournalFormat.regionStart(regionIndex, regionSize) + region.position());
+    }
+
+    /**
+     * Maps a data region, growing the file if needed
+     *
+     * @param index the index of the region
+     * @return the mapped region
+     * @throws IOException if the region can't be mapped
+     */
+    private MappedByteBuffer map(long index) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE,
+                JournalFormat.regionStart(index, regionSize), regionSize);
+    }
+
+    /**
+     * Maps a data region on the background thread
+     *
+     * @param index the index of the region
+     * @return the region once it is mapped
+     */
+    private CompletableFuture<MappedByteBuffer> mapAsync(long index) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return map(index);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, background);
+    }
+
+    /**
+     * Flushes the current region and the header to disk. Runs on the
+     * background thread.
+     */
+    private void force() {
+        flushRegion.force();
+        header.force();
+    }
+
+    /**
+     * Flushes everything to disk and closes the file
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        background.shutdown();
+        try {
+            background.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        region.force();
+        header.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,306 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 9:45 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.journal
+ * Class: ReplayReader
+ *
+ * Description: Streams the records of a replay journal back out
+ *
+ * ****************************************
+ */
+
+package simongame.engine.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import simongame.engine.AdaptiveGenerator;
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+
+/**
+ * Reads a journal written by {@link ReplayJournal}. The file is mapped one
+ * region at a time and every record is handed to a {@link Visitor}, so a
+ * journal of any length is read in constant memory. Only committed records
+ * are read, so a journal that is still being written, or whose writer
+ * crashed, can be read safely. Journals of every version of the format
+ * can be read.
+ */
+public class ReplayReader {
+
+    /**
+     * Receives the records of a journal in the order they were written
+     */
+    public interface Visitor {
+
+        /**
+         * Called for the start of a game
+         *
+         * @param seed        the seed the game's sequence comes from
+         * @param lightCount  the number of lights of the recorded engine
+         * @param epochMillis when the game started, in milliseconds since the epoch
+         * @param generator   the name of the game's generator, see
+         *                    {@link SequenceGenerator#named(String, int)},
+         *                    or null if it can't be built by name
+         * @param weights     the weight of each light when an
+         *                    {@code adaptive} game started, otherwise null
+         */
+        void gameStarted(long seed, int lightCount, long epochMillis, String generator, int[] weights);
+
+        /**
+         * Called for a generated step
+         *
+         * @param lightIndex the light index of the step
+         */
+        void stepAdded(int lightIndex);
+
+        /**
+         * Called for a user press
+         *
+         * @param lightIndex the light index the user pressed
+         * @param deltaNanos the time since the previous press, or since the
+         *                   game started for the first press
+         */
+        void userInput(int lightIndex, long deltaNanos);
+
+        /**
+         * Called for the end of a game
+         *
+         * @param score the final score
+         */
+        void gameOver(int score);
+    }
+
+    /**
+     * The journal file
+     */
+    private final Path file;
+
+    /**
+     * Constructs a reader of a journal
+     *
+     * @param file the journal file
+     */
+    public ReplayReader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads every committed record
+     *
+     * @param visitor receives the records
+     * @return the number of records read
+     * @throws IOException if the file can't be read or isn't a journal
+     */
+    public long read(Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, JournalFormat.HEADER_SIZE);
+            int version = header.getInt(JournalFormat.VERSION_OFFSET);
+            if (header.getInt(JournalFormat.MAGIC_OFFSET) != JournalFormat.MAGIC
+                    || version < 1 || version > JournalFormat.VERSION) {
+                throw new IOException(file + " is not a replay journal");
+            }
+            int regionSize = header.getInt(JournalFormat.REGION_SIZE_OFFSET);
+            long committed = header.getLong(JournalFormat.COMMITTED_OFFSET);
+
+            long records = 0;
+            for (long index = 0; JournalFormat.regionStart(index, regionSize) < committed; index++) {
+                long start = JournalFormat.regionStart(index, regionSize);
+                int length = (int) Math.min(regionSize, committed - start);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                records += readRegion(region, version, visitor);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Reads the records of one region
+     *
+     * @param region  the mapped region, up to the committed length
+     * @param version the version of the journal's format
+     * @param visitor receives the records
+     * @return the number of records read
+     * @throws IOException if a record is corrupt
+     */
+    private long readRegion(MappedByteBuffer region, int version, Visitor visitor) throws IOException {
+        long records = 0;
+        while (region.hasRemaining()) {
+            int tag = region.get() & 0xFF;
+            switch (tag & JournalFormat.KIND_MASK) {
+                case JournalFormat.STEP:
+                    visitor.stepAdded(tag & JournalFormat.LIGHT_MASK);
+                    break;
+                case JournalFormat.PRESS:
+                    visitor.userInput(tag & JournalFormat.LIGHT_MASK, JournalFormat.getVarLong(region));
+                    break;
+                default:
+                    if (tag == JournalFormat.SKIP) {
+                        // The padding at the end of a region
+                        return records;
+                    } else if (tag == JournalFormat.START) {
+                        readStart(region, version, visitor);
+                    } else if (tag == JournalFormat.END) {
+                        visitor.gameOver((int) JournalFormat.getVarLong(region));
+                    } else {
+                        throw new IOException("Corrupt record 0x" + Integer.toHexString(tag) + " in " + file);
+                    }
+            }
+            records++;
+        }
+        return records;
+    }
+
+    /**
+     * Reads a START record after its tag
+     *
+     * @param region  the mapped region
+     * @param version the version of the journal's format
+     * @param visitor receives the record
+     * @throws IOException if the generator is unknown
+     */
+    private void readStart(MappedByteBuffer region, int version, Visitor visitor) throws IOException {
+        int lightCount = region.get() & 0xFF;
+        String generator = "uniform";
+        if (version >= JournalFormat.GENERATOR_VERSION) {
+            int id = region.get() & 0xFF;
+            if (id == JournalFormat.CUSTOM) {
+                generator = null;
+            } else if (id < SequenceGenerator.NAMES.size()) {
+                generator = SequenceGenerator.NAMES.get(id);
+            } else {
+                throw new IOException("Unknown generator " + id + " in " + file);
+            }
+        }
+        long seed = region.getLong();
+        long epochMillis = region.getLong();
+        int[] weights = null;
+        if ("adaptive".equals(generator)) {
+            weights = new int[lightCount];
+            for (int i = 0; i < lightCount; i++) {
+                weights[i] = region.get() & 0xFF;
+            }
+        }
+        visitor.gameStarted(seed, lightCount, epochMillis, generator, weights);
+    }
+
+    /**
+     * Plays every recorded game back into an engine. Each game is started
+     * with its recorded seed and generator, an adaptive generator with the
+     * weights it started with, and fed its recorded presses, and every
+     * step the engine generates is checked against the recorded one, so a
+     * replay also verifies that the engine still plays the same games.
+     * Games whose generator can't be built by name are skipped. The
+     * engine is left with the generator of the last game replayed.
+     *
+     * @param engine the engine to replay into
+     * @return the number of records read
+     * @throws IOException           if the file can't be read or isn't a journal
+     * @throws IllegalStateException if the engine generates a different game
+     */
+    public long replayInto(SimonEngine engine) throws IOException {
+        return read(new Visitor() {
+
+            /**
+             * The index of the next recorded step in the current game
+             */
+            private int stepIndex;
+
+            /**
+             * Is the current game being skipped?
+             */
+            private boolean skipping;
+
+            /**
+             * Switches the engine to the game's generator, or skips the game
+             * if it has none, and starts it from its seed
+             *
+             * @param seed        the seed the game's sequence comes from
+             * @param lightCount  the number of lights of the recorded engine
+             * @param epochMillis when the game started
+             * @param generator   the name of the game's generator, or null
+             * @param weights     the starting weights of an adaptive game,
+             *                    otherwise null
+             */
+            @Override
+            public void gameStarted(long seed, int lightCount, long epochMillis, String generator, int[] weights) {
+                if (lightCount != engine.getLightCount()) {
+                    throw new IllegalStateException("The journal was recorded with " + lightCount
+                            + " lights but the engine has " + engine.getLightCount());
+                }
+                stepIndex = 0;
+                skipping = generator == null;
+                if (skipping) {
+                    return;
+                }
+                SequenceGenerator current = engine.getGenerator();
+                if (!generator.equals(current.getName())) {
+                    current = SequenceGenerator.named(generator, lightCount);
+                    engine.setGenerator(current);
+                }
+                if (weights != null) {
+                    for (int i = 0; i < lightCount; i++) {
+                        ((AdaptiveGenerator) current).setWeight(i, weights[i]);
+                    }
+                }
+                engine.startNewGame(seed);
+            }
+
+            /**
+             * Checks that the engine generated the recorded step
+             *
+             * @param lightIndex the light index of the recorded step
+             */
+            @Override
+            public void stepAdded(int lightIndex) {
+                if (skipping) {
+                    return;
+                }
+                int generated = engine.getGameSequence().get(stepIndex);
+                if (generated != lightIndex) {
+                    throw new IllegalStateException("Step " + stepIndex + " was " + lightIndex
+                            + " in the journal but the engine generated " + generated);
+                }
+                stepIndex++;
+            }
+
+            /**
+             * Feeds the recorded press to the engine
+             *
+             * @param lightIndex the light index the user pressed
+             * @param deltaNanos the time since the previous press, unused
+             */
+            @Override
+            public void userInput(int lightIndex, long deltaNanos) {
+                if (skipping) {
+                    return;
+                }
+                // A press that completes a round generates the next step,
+                // which is checked when its record comes up
+                engine.addUserInput(lightIndex);
+            }
+
+            /**
+             * Checks that the engine reached the recorded score
+             *
+             * @param score the recorded final score
+             */
+            @Override
+            public void gameOver(int score) {
+                if (skipping) {
+                    return;
+                }
+                if (score != engine.getScore()) {
+                    throw new IllegalStateException("The journal scored " + score
+                            + " but the engine scored " + engine.getScore());
+                }
+            }
+        });
+    }
+}
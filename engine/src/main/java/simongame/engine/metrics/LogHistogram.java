@@ -0,0 +1,176 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 10:40 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.metrics
+ * Class: LogHistogram
+ *
+ * Description: A lock-free histogram with logarithmic buckets
+ *
+ * ****************************************
+ */
+
+package simongame.engine.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds,
+ * laid out like an HdrHistogram. Values below 128 get a bucket each; above
+ * that every power of two is split into 64 equal buckets, so any recorded
+ * value is known to within 1/64 (about 1.6%) of itself. Values up to
+ * 2<sup>40</sup> (about 18 minutes in nanoseconds) fit in 2,240 buckets;
+ * larger values are counted in the last one.
+ * <p>
+ * Recording is a single atomic increment with no locks and no allocation,
+ * so any number of threads can record at once. Reading a percentile scans
+ * the buckets and may see a recording in progress, which only shifts the
+ * answer by that one value.
+ */
+public class LogHistogram {
+
+    /**
+     * The number of bits of a value that pick its bucket within a power of two
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * The number of buckets below the first split power of two
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets per power of two above that
+     */
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * The largest power of two that gets its own buckets
+     */
+    private static final int MAX_MAGNITUDE = 40 - SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets
+     */
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + MAX_MAGNITUDE * SUB_BUCKET_HALF;
+
+    /**
+     * The count in each bucket
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * The number of values recorded
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * The largest value recorded
+     */
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Returns the bucket of a value
+     *
+     * @param value the value, at least 0
+     * @return the index of its bucket
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) Math.max(0, value);
+        }
+        // Shift the value down until it has SUB_BUCKET_BITS significant bits
+        int magnitude = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> magnitude) - SUB_BUCKET_HALF;
+        return SUB_BUCKET_COUNT + (magnitude - 1) * SUB_BUCKET_HALF + sub;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket
+     *
+     * @param bucket the index of the bucket
+     * @return the largest value in it
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int offset = bucket - SUB_BUCKET_COUNT;
+        int magnitude = offset / SUB_BUCKET_HALF + 1;
+        long sub = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((sub + 1) << magnitude) - 1;
+    }
+
+    /**
+     * Records a value
+     *
+     * @param value the value, negative values count as 0
+     */
+    public void record(long value) {
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.incrementAndGet();
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * A getter method for the number of values recorded
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * A getter method for the largest value recorded
+     *
+     * @return the largest value, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the value at a percentile. The answer is the largest value
+     * of the bucket the percentile falls in, so it never understates.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the value at that percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears every count. Values recorded while the reset runs may be
+     * partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+}
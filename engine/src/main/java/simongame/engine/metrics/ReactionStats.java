@@ -0,0 +1,214 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 11:30 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.metrics
+ * Class: ReactionStats
+ *
+ * Description: Streaming reaction-time statistics per pad and per position
+ *
+ * ****************************************
+ */
+
+package simongame.engine.metrics;
+
+/**
+ * Measures how fast a player answers. The first press of a round is timed
+ * from the end of the round's playback and every other press from the
+ * press before it. Each reaction time is kept three ways:
+ * <ul>
+ *     <li>in a ring buffer of the most recent presses, as parallel
+ *     primitive arrays</li>
+ *     <li>in a {@link LogHistogram} for the pad that was pressed</li>
+ *     <li>in a {@link LogHistogram} for the press's position in the
+ *     sequence, grouped by powers of two: 0, 1, 2-3, 4-7 and so on</li>
+ * </ul>
+ * Everything is allocated up front, so a session of any length runs in
+ * constant memory and recording allocates nothing.
+ * <p>
+ * Presses are recorded by one thread, the input thread. The histograms
+ * can be read from any thread without locking. The ring buffer can be
+ * read from any thread too, though entries being overwritten while they
+ * are copied may come out mixed.
+ */
+public class ReactionStats {
+
+    /**
+     * The number of position groups; the last one holds every position
+     * from 64 on
+     */
+    public static final int POSITION_GROUPS = 8;
+
+    /**
+     * The reaction times in the ring buffer, in nanoseconds
+     */
+    private final long[] recentNanos;
+
+    /**
+     * The pads pressed in the ring buffer
+     */
+    private final int[] recentLights;
+
+    /**
+     * The sequence positions in the ring buffer
+     */
+    private final int[] recentPositions;
+
+    /**
+     * The number of presses ever recorded; the next one goes in slot
+     * {@code written % capacity}
+     */
+    private volatile long written;
+
+    /**
+     * The reaction times by pad
+     */
+    private final LogHistogram[] byLight;
+
+    /**
+     * The reaction times by position group
+     */
+    private final LogHistogram[] byPosition;
+
+    /**
+     * The time the last playback ended or the last press was made, or 0 if
+     * the next press has nothing to be timed from
+     */
+    private long lastNanos;
+
+    /**
+     * Constructs the statistics
+     *
+     * @param lightCount the number of pads
+     * @param capacity   the number of recent presses to keep
+     */
+    public ReactionStats(int lightCount, int capacity) {
+        this.recentNanos = new long[capacity];
+        this.recentLights = new int[capacity];
+        this.recentPositions = new int[capacity];
+        this.byLight = new LogHistogram[lightCount];
+        for (int i = 0; i < lightCount; i++) {
+            byLight[i] = new LogHistogram();
+        }
+        this.byPosition = new LogHistogram[POSITION_GROUPS];
+        for (int i = 0; i < POSITION_GROUPS; i++) {
+            byPosition[i] = new LogHistogram();
+        }
+    }
+
+    /**
+     * Returns the position group of a sequence position
+     *
+     * @param position the position in the sequence, at least 0
+     * @return the group, 0 for position 0, 1 for position 1, 2 for
+     * positions 2-3 and so on
+     */
+    public static int positionGroup(int position) {
+        int group = Integer.SIZE - Integer.numberOfLeadingZeros(position);
+        return Math.min(group, POSITION_GROUPS - 1);
+    }
+
+    /**
+     * Marks the end of a round's playback, which the next press is timed from
+     *
+     * @param nanos the time, from {@link System#nanoTime()}
+     */
+    public void playbackFinished(long nanos) {
+        lastNanos = nanos;
+    }
+
+    /**
+     * Forgets the last playback or press, so the next press isn't timed.
+     * Call this when a game ends or playback starts again.
+     */
+    public void interrupt() {
+        lastNanos = 0;
+    }
+
+    /**
+     * Records a press
+     *
+     * @param lightIndex the pad pressed
+     * @param position   the position in the sequence the press answers
+     * @param nanos      the time of the press, from {@link System#nanoTime()}
+     */
+    public void press(int lightIndex, int position, long nanos) {
+        long previous = lastNanos;
+        lastNanos = nanos;
+        if (previous == 0) {
+            // Pressed during playback or before any game, nothing to time from
+            return;
+        }
+        long reaction = nanos - previous;
+
+        long slot = written;
+        int index = (int) (slot % recentNanos.length);
+        recentNanos[index] = reaction;
+        recentLights[index] = lightIndex;
+        recentPositions[index] = position;
+        written = slot + 1;
+
+        byLight[lightIndex].record(reaction);
+        byPosition[positionGroup(position)].record(reaction);
+    }
+
+    /**
+     * A getter method for the number of presses ever recorded
+     *
+     * @return the number of presses
+     */
+    public long getCount() {
+        return written;
+    }
+
+    /**
+     * A getter method for the number of pads
+     *
+     * @return the number of pads
+     */
+    public int getLightCount() {
+        return byLight.length;
+    }
+
+    /**
+     * A getter method for the reaction times of a pad
+     *
+     * @param lightIndex the pad
+     * @return the histogram, in nanoseconds
+     */
+    public LogHistogram getByLight(int lightIndex) {
+        return byLight[lightIndex];
+    }
+
+    /**
+     * A getter method for the reaction times of a position group
+     *
+     * @param group the group, see {@link #positionGroup(int)}
+     * @return the histogram, in nanoseconds
+     */
+    public LogHistogram getByPosition(int group) {
+        return byPosition[group];
+    }
+
+    /**
+     * Copies the most recent presses, oldest first, into the given arrays
+     *
+     * @param nanos     receives the reaction times in nanoseconds
+     * @param lights    receives the pads pressed
+     * @param positions receives the sequence positions
+     * @return the number of presses copied
+     */
+    public int copyRecent(long[] nanos, int[] lights, int[] positions) {
+        long end = written;
+        int count = (int) Math.min(Math.min(end, recentNanos.length), nanos.length);
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((end - count + i) % recentNanos.length);
+            nanos[i] = recentNanos[index];
+            lights[i] = recentLights[index];
+            positions[i] = recentPositions[index];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,465 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 10:15 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.scores
+ * Class: HighScoreStore
+ *
+ * Description: A crash-safe, memory-mapped table of the best scores
+ *
+ * ****************************************
+ */
+
+package simongame.engine.scores;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+import simongame.engine.EngineListener;
+import simongame.engine.SimonEngine;
+
+/**
+ * Keeps the best scores ever played in a small file of fixed-size records.
+ * Add it to a {@link SimonEngine} as a listener and every finished game is
+ * submitted to it.
+ * <p>
+ * The file holds two copies of the table, each sorted best first with a
+ * generation number and a checksum. A write always goes to the older copy
+ * and is flushed before it counts, so a crash in the middle of a write
+ * leaves the other copy intact. Loading reads the newest valid copy's
+ * records in order, so it costs O(k) for k entries with nothing to sort or
+ * parse.
+ * <p>
+ * Submitting a score only queues it and updates the personal best, so it
+ * never blocks the caller. The queue is merged into the table and written
+ * on a background thread, at most once per batch delay.
+ */
+public class HighScoreStore implements EngineListener, AutoCloseable {
+
+    /**
+     * The number of scores kept
+     */
+    public static final int CAPACITY = 100;
+
+    /**
+     * The magic number at the start of the file, "SMNH"
+     */
+    private static final int MAGIC = 0x534D4E48;
+
+    /**
+     * The version of the file format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the file header: magic, version, capacity, reserved
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of a copy's header: generation, count, checksum, reserved
+     */
+    private static final int SLOT_HEADER_SIZE = 24;
+
+    /**
+     * The size of a record: score, reserved, epochMillis, seed
+     */
+    private static final int RECORD_SIZE = 24;
+
+    /**
+     * The size of one copy of the table
+     */
+    private static final int SLOT_SIZE = SLOT_HEADER_SIZE + CAPACITY * RECORD_SIZE;
+
+    /**
+     * The size of the file
+     */
+    private static final int FILE_SIZE = HEADER_SIZE + 2 * SLOT_SIZE;
+
+    /**
+     * How long submitted scores wait to be written together, in milliseconds
+     */
+    private static final long BATCH_DELAY_MS = 250;
+
+    /**
+     * A single entry of the table
+     */
+    public static final class Entry {
+
+        /**
+         * The score
+         */
+        private final int score;
+
+        /**
+         * When the game ended, in milliseconds since the epoch
+         */
+        private final long epochMillis;
+
+        /**
+         * The seed the game's sequence came from
+         */
+        private final long seed;
+
+        /**
+         * Constructs an entry
+         *
+         * @param score       the score
+         * @param epochMillis when the game ended, in milliseconds since the epoch
+         * @param seed        the seed the game's sequence came from
+         */
+        public Entry(int score, long epochMillis, long seed) {
+            this.score = score;
+            this.epochMillis = epochMillis;
+            this.seed = seed;
+        }
+
+        /**
+         * A getter method for the score
+         *
+         * @return the score
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * A getter method for when the game ended
+         *
+         * @return when the game ended, in milliseconds since the epoch
+         */
+        public long getEpochMillis() {
+            return epochMillis;
+        }
+
+        /**
+         * A getter method for the seed the game's sequence came from
+         *
+         * @return the seed
+         */
+        public long getSeed() {
+            return seed;
+        }
+    }
+
+    /**
+     * The file
+     */
+    private final FileChannel channel;
+
+    /**
+     * The whole file, mapped
+     */
+    private final MappedByteBuffer map;
+
+    /**
+     * The table, best first, only touched on the background thread after
+     * loading
+     */
+    private final ArrayList<Entry> table = new ArrayList<>(CAPACITY + 1);
+
+    /**
+     * An unmodifiable copy of the table, replaced after every write
+     */
+    private volatile List<Entry> snapshot;
+
+    /**
+     * The generation of the newest copy on disk
+     */
+    private long generation;
+
+    /**
+     * The index of the newest copy on disk
+     */
+    private int newestSlot;
+
+    /**
+     * The best score, including scores not yet written
+     */
+    private volatile int personalBest;
+
+    /**
+     * The seed of the game in progress
+     */
+    private long currentSeed;
+
+    /**
+     * The scores waiting to be written
+     */
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Is a write already scheduled?
+     */
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    /**
+     * The thread that writes the table
+     */
+    private final ScheduledExecutorService writer;
+
+    /**
+     * Opens a store, creating the file if it doesn't exist
+     *
+     * @param file the high-score file
+     * @throws IOException if the file can't be opened or isn't a high-score file
+     */
+    public HighScoreStore(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+
+        if (map.getInt(0) == 0) {
+            // A new file, both copies start empty with generation 0
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, CAPACITY);
+            map.force();
+        } else if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(8) != CAPACITY) {
+            channel.close();
+            throw new IOException(file + " is not a high-score file");
+        }
+        load();
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simon-high-scores");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Loads the newest copy of the table whose checksum matches
+     */
+    private void load() {
+        int best = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            if (isValid(slot) && (best < 0 || slotGeneration(slot) > slotGeneration(best))) {
+                best = slot;
+            }
+        }
+        if (best >= 0) {
+            newestSlot = best;
+            generation = slotGeneration(best);
+            int base = slotOffset(best);
+            int count = map.getInt(base + 8);
+            for (int i = 0; i < count; i++) {
+                int record = base + SLOT_HEADER_SIZE + i * RECORD_SIZE;
+                table.add(new Entry(map.getInt(record), map.getLong(record + 8), map.getLong(record + 16)));
+            }
+        }
+        personalBest = table.isEmpty() ? 0 : table.get(0).getScore();
+        snapshot = Collections.unmodifiableList(new ArrayList<>(table));
+    }
+
+    /**
+     * Returns the file position of a copy of the table
+     *
+     * @param slot the index of the copy
+     * @return the file position
+     */
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Returns the generation of a copy of the table
+     *
+     * @param slot the index of the copy
+     * @return the generation
+     */
+    private long slotGeneration(int slot) {
+        return map.getLong(slotOffset(slot));
+    }
+
+    /**
+     * Checks a copy of the table against its checksum
+     *
+     * @param slot the index of the copy
+     * @return true if the copy was written completely
+     */
+    private boolean isValid(int slot) {
+        int base = slotOffset(slot);
+        int count = map.getInt(base + 8);
+        if (count < 0 || count > CAPACITY) {
+            return false;
+        }
+        return map.getInt(base + 12) == checksum(base, count);
+    }
+
+    /**
+     * Computes the checksum of a copy of the table, covering its generation,
+     * count and records
+     *
+     * @param base  the file position of the copy
+     * @param count the number of records
+     * @return the checksum
+     */
+    private int checksum(int base, int count) {
+        CRC32C crc = new CRC32C();
+        crc.update(map.slice(base, 12));
+        crc.update(map.slice(base + SLOT_HEADER_SIZE, count * RECORD_SIZE));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A getter method for the best score, including scores not yet
+     * written. Never blocks.
+     *
+     * @return the best score, or 0 if nothing has been played
+     */
+    public int getPersonalBest() {
+        return personalBest;
+    }
+
+    /**
+     * A getter method for the table as of the last write. Never blocks.
+     *
+     * @return the entries, best first
+     */
+    public List<Entry> getTopScores() {
+        return snapshot;
+    }
+
+    /**
+     * Remembers the seed of the game that just started
+     *
+     * @param seed the seed the game's sequence comes from
+     */
+    @Override
+    public void gameStarted(long seed) {
+        currentSeed = seed;
+    }
+
+    /**
+     * Remembers the seed of the game that was just resumed
+     *
+     * @param seed  the seed the game's sequence comes from
+     * @param steps the number of steps in the sequence
+     */
+    @Override
+    public void gameResumed(long seed, int steps) {
+        currentSeed = seed;
+    }
+
+    /**
+     * Submits the score of the game that just ended
+     *
+     * @param score the final score
+     */
+    @Override
+    public void gameOver(int score) {
+        submit(score, System.currentTimeMillis(), currentSeed);
+    }
+
+    /**
+     * Queues a score to be written. Returns right away.
+     *
+     * @param score       the score
+     * @param epochMillis when the game ended, in milliseconds since the epoch
+     * @param seed        the seed the game's sequence came from
+     */
+    public void submit(int score, long epochMillis, long seed) {
+        if (score > personalBest) {
+            personalBest = score;
+        }
+        pending.add(new Entry(score, epochMillis, seed));
+        if (writeScheduled.compareAndSet(false, true)) {
+            writer.schedule(this::writePending, BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Merges the queued scores into the table and writes it if it changed.
+     * Runs on the background thread.
+     */
+    private void writePending() {
+        writeScheduled.set(false);
+        boolean changed = false;
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            changed |= insert(entry);
+        }
+        if (changed) {
+            write();
+        }
+    }
+
+    /**
+     * Inserts an entry into the table after every entry with the same or a
+     * better score
+     *
+     * @param entry the entry to insert
+     * @return true if the entry made it into the table
+     */
+    private boolean insert(Entry entry) {
+        int index = table.size();
+        while (index > 0 && table.get(index - 1).getScore() < entry.getScore()) {
+            index--;
+        }
+        if (index >= CAPACITY) {
+            return false;
+        }
+        table.add(index, entry);
+        if (table.size() > CAPACITY) {
+            table.remove(CAPACITY);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the table over the older copy and flushes it
+     */
+    private void write() {
+        int slot = 1 - newestSlot;
+        int base = slotOffset(slot);
+        int count = table.size();
+        for (int i = 0; i < count; i++) {
+            Entry entry = table.get(i);
+            int record = base + SLOT_HEADER_SIZE + i * RECORD_SIZE;
+            map.putInt(record, entry.getScore());
+            map.putInt(record + 4, 0);
+            map.putLong(record + 8, entry.getEpochMillis());
+            map.putLong(record + 16, entry.getSeed());
+        }
+        map.putLong(base, generation + 1);
+        map.putInt(base + 8, count);
+        map.putInt(base + 12, checksum(base, count));
+        map.force(base, SLOT_SIZE);
+
+        generation++;
+        newestSlot = slot;
+        snapshot = Collections.unmodifiableList(new ArrayList<>(table));
+    }
+
+    /**
+     * Writes any queued scores and closes the file
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        writer.execute(this::writePending);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,341 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 5:00 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine.snapshot
+ * Class: SnapshotStore
+ *
+ * Description: Saves the game in progress so it can be resumed
+ *
+ * ****************************************
+ */
+
+package simongame.engine.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import simongame.engine.EngineListener;
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+
+/**
+ * Keeps a snapshot of an engine's game in progress in a small binary file,
+ * so a game that is interrupted, by quitting or by the machine going down,
+ * can carry on where it left off. Add it to the {@link SimonEngine} as a
+ * listener: a snapshot is saved at the start of every round and deleted
+ * when the game is lost.
+ * <p>
+ * The file is a 72-byte header followed by the packed sequence, exactly
+ * as the engine's {@link simongame.engine.SequenceBuffer} holds it:
+ * <pre>
+ *   0  magic "SMSN"         4  version
+ *   8  light count         12  score
+ *  16  seed                24  random state
+ *  32  saved at (epoch ms) 40  nanoseconds played
+ *  48  steps               52  bits per step
+ *  56  upcoming index      60  CRC32C of everything else
+ *  64  generator           68  unused
+ *  72  packed steps, 8 bytes per word
+ * </pre>
+ * The generator is the index of the engine's generator in
+ * {@link SequenceGenerator#NAMES}, or -1 if it has no name. A game is
+ * only resumed by an engine with the same number of lights and the same
+ * generator, since any other generator would pick different steps from
+ * the saved random state.
+ * <p>
+ * Saving copies the packed words on the caller's thread, a few
+ * microseconds even for 100,000 steps, and writes them on a background
+ * thread to a temporary file that replaces the old one in a single move,
+ * so a crash leaves either the old snapshot or the new one. Restoring
+ * reads the file into a heap buffer and loads the words into the engine
+ * in one bulk copy, with no step replayed. The file is not mapped, so
+ * nothing holds it open and the next save can replace it straight away,
+ * even on systems that can't move a file over one that is mapped.
+ */
+public class SnapshotStore implements EngineListener, AutoCloseable {
+
+    /**
+     * The magic number at the start of the file, "SMSN"
+     */
+    private static final int MAGIC = 0x534D534E;
+
+    /**
+     * The version of the file format
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * The size of the header
+     */
+    private static final int HEADER_SIZE = 72;
+
+    /**
+     * Where the checksum is in the header
+     */
+    private static final int CRC_OFFSET = 60;
+
+    /**
+     * Where the generator is in the header
+     */
+    private static final int GENERATOR_OFFSET = 64;
+
+    /**
+     * The engine whose games are saved
+     */
+    private final SimonEngine engine;
+
+    /**
+     * The snapshot file
+     */
+    private final Path file;
+
+    /**
+     * The file a snapshot is written to before it replaces the old one
+     */
+    private final Path temporary;
+
+    /**
+     * The thread that writes and deletes the file
+     */
+    private final ExecutorService writer;
+
+    /**
+     * The time played before the current session of the game, in nanoseconds
+     */
+    private long playedBefore;
+
+    /**
+     * When the current session of the game began, from {@link System#nanoTime()}
+     */
+    private long sessionStart = System.nanoTime();
+
+    /**
+     * Opens a store. Nothing is read until {@link #restore()}.
+     *
+     * @param file   the snapshot file
+     * @param engine the engine whose games are saved
+     */
+    public SnapshotStore(Path file, SimonEngine engine) {
+        this.file = file;
+        this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        this.engine = engine;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "simon-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Resumes the saved game in the engine, if there is one for an engine
+     * with the same number of lights and the same generator. A snapshot
+     * from an older version of the format is not resumed.
+     *
+     * @return the nanoseconds the game had been played before it was saved,
+     * or -1 if there was no game to resume
+     * @throws IOException if the file can't be read or is corrupt
+     */
+    public long restore() throws IOException {
+        ByteBuffer snapshot;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a snapshot");
+            }
+            snapshot = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (snapshot.hasRemaining()) {
+                if (channel.read(snapshot) < 0) {
+                    throw new IOException(file + " is truncated");
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        if (snapshot.getInt(0) != MAGIC || snapshot.getInt(4) < 1 || snapshot.getInt(4) > VERSION) {
+            throw new IOException(file + " is not a snapshot");
+        }
+        if (snapshot.getInt(4) != VERSION) {
+            // Doesn't say which generator the game was played with
+            return -1;
+        }
+        if (snapshot.capacity() < HEADER_SIZE) {
+            throw new IOException(file + " is corrupt");
+        }
+        int steps = snapshot.getInt(48);
+        int bitsPerStep = snapshot.getInt(52);
+        int stepsPerWord = Long.SIZE / Math.max(1, bitsPerStep);
+        long words = ((long) steps + stepsPerWord - 1) / stepsPerWord;
+        if (snapshot.capacity() != HEADER_SIZE + words * Long.BYTES
+                || snapshot.getInt(CRC_OFFSET) != checksum(snapshot)) {
+            throw new IOException(file + " is corrupt");
+        }
+        if (snapshot.getInt(8) != engine.getLightCount()
+                || bitsPerStep != engine.getGameSequence().getBitsPerStep()) {
+            // Saved on a different board
+            return -1;
+        }
+        int generator = snapshot.getInt(GENERATOR_OFFSET);
+        if (generator < 0 || generator != generatorId()) {
+            // Saved with a different generator, or one that can't be told apart
+            return -1;
+        }
+
+        LongBuffer packed = snapshot.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        engine.resumeGame(snapshot.getLong(16), snapshot.getLong(24), snapshot.getInt(56),
+                packed, steps, snapshot.getInt(12));
+        playedBefore = snapshot.getLong(40);
+        sessionStart = System.nanoTime();
+        return playedBefore;
+    }
+
+    /**
+     * Saves the engine's game. Only the packed words are copied on the
+     * calling thread; the file is written in the background.
+     */
+    public void save() {
+        int steps = engine.getGameSequence().size();
+        if (steps == 0) {
+            return;
+        }
+        long[] words = new long[engine.getGameSequence().getWordCount()];
+        engine.getGameSequence().copyWords(words);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, engine.getLightCount());
+        header.putInt(12, engine.getScore());
+        header.putLong(16, engine.getGameSeed());
+        header.putLong(24, engine.getRandomState());
+        header.putLong(32, System.currentTimeMillis());
+        header.putLong(40, playedBefore + System.nanoTime() - sessionStart);
+        header.putInt(48, steps);
+        header.putInt(52, engine.getGameSequence().getBitsPerStep());
+        header.putInt(56, engine.getUpcomingIndex());
+        header.putInt(GENERATOR_OFFSET, generatorId());
+        writer.execute(() -> write(header, words));
+    }
+
+    /**
+     * Returns the id of the engine's generator
+     *
+     * @return its index in {@link SequenceGenerator#NAMES}, or -1
+     */
+    private int generatorId() {
+        return SequenceGenerator.idOf(engine.getGenerator());
+    }
+
+    /**
+     * Writes a snapshot. Runs on the writer thread.
+     *
+     * @param header the header, without its checksum
+     * @param words  the packed steps
+     */
+    private void write(ByteBuffer header, long[] words) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + words.length * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(header);
+        buffer.asLongBuffer().put(words);
+        buffer.putInt(CRC_OFFSET, checksum(buffer));
+        buffer.rewind();
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not save the game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the snapshot in the background, after any save still waiting
+     */
+    public void delete() {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete the saved game: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Returns the checksum of a snapshot, over everything but the checksum
+     *
+     * @param buffer the whole snapshot
+     * @return the CRC32C
+     */
+    private static int checksum(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(0).limit(CRC_OFFSET));
+        crc.update(buffer.duplicate().position(CRC_OFFSET + 4).limit(buffer.capacity()));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Starts timing a new game
+     *
+     * @param seed the seed the game's sequence comes from
+     */
+    @Override
+    public void gameStarted(long seed) {
+        playedBefore = 0;
+        sessionStart = System.nanoTime();
+    }
+
+    /**
+     * Saves the game at the start of each round, once the round's new step
+     * is in the sequence
+     *
+     * @param index      the index of the new step
+     * @param lightIndex the light index of the new step
+     */
+    @Override
+    public void stepAdded(int index, int lightIndex) {
+        save();
+    }
+
+    /**
+     * Deletes the snapshot of a lost game, there is nothing to resume
+     *
+     * @param score the final score
+     */
+    @Override
+    public void gameOver(int score) {
+        delete();
+    }
+
+    /**
+     * Finishes any waiting save and stops the writer thread
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
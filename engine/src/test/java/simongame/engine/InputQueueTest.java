@@ -0,0 +1,138 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 12:50 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.engine
+ * Class: InputQueueTest
+ *
+ * Description: Tests the lock-free input queue under several producers
+ *
+ * ****************************************
+ */
+
+package simongame.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests {@link InputQueue}. Each event carries its producer as the kind and
+ * the producer's own count as the value, so the consumer can tell whether
+ * an event went missing, came out twice or came out of order.
+ */
+class InputQueueTest {
+
+    /**
+     * The number of threads offering events at once
+     */
+    private static final int PRODUCERS = 4;
+
+    /**
+     * The number of events each producer offers
+     */
+    private static final int EVENTS_PER_PRODUCER = 5_000;
+
+    /**
+     * Several producers race a consumer that drains while they offer. The
+     * queue never fills, so every offer must succeed, and the consumer must
+     * see every event exactly once and each producer's events in the order
+     * that producer claimed their slots.
+     */
+    @Test
+    @Timeout(30)
+    void concurrentProducersLoseAndRepeatNothing() throws InterruptedException {
+        InputQueue queue = new InputQueue(PRODUCERS * EVENTS_PER_PRODUCER);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    if (!queue.offer(producer, i, System.nanoTime())) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }, "InputQueueTest-producer-" + p);
+            producers.add(thread);
+            thread.start();
+        }
+
+        // Each producer's next expected value; a gap or repeat breaks the count
+        int[] next = new int[PRODUCERS];
+        AtomicInteger outOfOrder = new AtomicInteger();
+        InputQueue.Handler handler = (kind, value, nanos) -> {
+            if (value != next[kind]) {
+                outOfOrder.incrementAndGet();
+            }
+            next[kind] = value + 1;
+        };
+
+        start.countDown();
+        int drained = 0;
+        while (producers.stream().anyMatch(Thread::isAlive)) {
+            drained += queue.drain(handler, 64);
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        drained += queue.drain(handler, Integer.MAX_VALUE);
+
+        assertEquals(0, rejected.get(), "offers rejected below capacity");
+        assertEquals(0, outOfOrder.get(), "events lost, repeated or reordered");
+        assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, drained);
+        for (int p = 0; p < PRODUCERS; p++) {
+            assertEquals(EVENTS_PER_PRODUCER, next[p], "events from producer " + p);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * A full queue drops new events and keeps the ones it holds, then takes
+     * events again once the consumer has made room
+     */
+    @Test
+    void fullQueueDropsNewEvents() {
+        InputQueue queue = new InputQueue(6);
+        int capacity = queue.getCapacity();
+        assertEquals(8, capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(queue.offer(0, i, i));
+        }
+        assertFalse(queue.offer(0, -1, -1));
+
+        List<Integer> values = new ArrayList<>();
+        assertEquals(3, queue.drain((kind, value, nanos) -> values.add(value), 3));
+        for (int i = capacity; i < capacity + 3; i++) {
+            assertTrue(queue.offer(0, i, i));
+        }
+        assertFalse(queue.offer(0, -1, -1));
+
+        assertEquals(capacity, queue.drain((kind, value, nanos) -> values.add(value), Integer.MAX_VALUE));
+        assertTrue(queue.isEmpty());
+
+        // The dropped events never show up; the rest come out in offer order
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < capacity + 3; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, values);
+    }
+}
@@ -0,0 +1,4 @@
+module SIMON.server {
+    requires SIMON.engine;
+    exports simongame.server;
+}
@@ -0,0 +1,277 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 7:30 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.server
+ * Class: GameSession
+ *
+ * Description: A single client's game on the Simon server
+ *
+ * ****************************************
+ */
+
+package simongame.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import simongame.engine.GameRandom;
+import simongame.engine.SimonEngine;
+
+/**
+ * A single client's connection to the server. The session reads commands
+ * one line at a time, plays them on its own {@link SimonEngine} and
+ * writes one line back for every command:
+ * <pre>
+ * START         -&gt; GAME &lt;seed&gt; then STEP &lt;light&gt;
+ * PRESS &lt;light&gt; -&gt; OK | STEP &lt;light&gt; | OVER &lt;score&gt;
+ * QUIT          -&gt; BYE
+ * </pre>
+ * {@code STEP} appends one light to the client's copy of the sequence, so
+ * a new round only sends the step that was added. Anything else gets
+ * {@code ERR <message>}.
+ * <p>
+ * A line longer than {@value #MAX_LINE_LENGTH} characters ends the
+ * session, and so does a read that times out on the socket, so a client
+ * can neither fill the heap with one endless line nor hold a session open
+ * without sending anything.
+ */
+public class GameSession implements Runnable {
+
+    /**
+     * The longest command line a client may send, in characters. Every
+     * valid command is far shorter.
+     */
+    static final int MAX_LINE_LENGTH = 64;
+
+    /**
+     * What {@link #readLine(InputStream, byte[])} returns at the end of the
+     * stream
+     */
+    private static final int END_OF_STREAM = -1;
+
+    /**
+     * What {@link #readLine(InputStream, byte[])} returns for a line longer
+     * than {@link #MAX_LINE_LENGTH}
+     */
+    private static final int LINE_TOO_LONG = -2;
+
+    /**
+     * The id of this session in the registry
+     */
+    private final long id;
+
+    /**
+     * The client's connection
+     */
+    private final Socket socket;
+
+    /**
+     * The registry this session belongs to
+     */
+    private final SessionRegistry registry;
+
+    /**
+     * The engine that plays this session's games
+     */
+    private final SimonEngine engine;
+
+    /**
+     * The last time the client sent a command, from {@link System#nanoTime()}
+     */
+    private volatile long lastActiveNanos;
+
+    /**
+     * Constructs a session for a new connection
+     *
+     * @param id       the id of this session in the registry
+     * @param socket   the client's connection
+     * @param registry the registry this session belongs to
+     * @param random   the random stream this session's games are seeded from
+     */
+    public GameSession(long id, Socket socket, SessionRegistry registry, GameRandom random) {
+        this.id = id;
+        this.socket = socket;
+        this.registry = registry;
+        this.engine = new SimonEngine(random);
+        this.lastActiveNanos = System.nanoTime();
+    }
+
+    /**
+     * A getter method for the id of this session
+     *
+     * @return the id of this session
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * A getter method for the last time the client sent a command
+     *
+     * @return the time from {@link System#nanoTime()}
+     */
+    public long getLastActiveNanos() {
+        return lastActiveNanos;
+    }
+
+    /**
+     * Reads and answers commands until the client leaves or the session
+     * is closed
+     */
+    @Override
+    public void run() {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            byte[] buffer = new byte[MAX_LINE_LENGTH];
+            int length;
+            while ((length = readLine(in, buffer)) != END_OF_STREAM) {
+                if (length == LINE_TOO_LONG) {
+                    out.write("ERR line too long\n");
+                    break;
+                }
+                lastActiveNanos = System.nanoTime();
+                if (!handle(new String(buffer, 0, length, StandardCharsets.US_ASCII), out)) {
+                    break;
+                }
+                out.flush();
+            }
+            out.flush();
+        } catch (IOException e) {
+            // The client went away, stopped sending or the session was evicted
+        } finally {
+            registry.remove(this);
+        }
+    }
+
+    /**
+     * Reads one line into a buffer, without its line feed or a carriage
+     * return before it
+     *
+     * @param in     the client's input
+     * @param buffer where to put the line, {@link #MAX_LINE_LENGTH} bytes
+     * @return the length of the line, {@link #END_OF_STREAM} if the client
+     *         closed the connection before sending anything more, or
+     *         {@link #LINE_TOO_LONG} if the line doesn't fit in the buffer
+     * @throws IOException if the line can't be read, or the read timed out
+     */
+    private static int readLine(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                return length > 0 ? length : END_OF_STREAM;
+            }
+            if (length == buffer.length) {
+                return LINE_TOO_LONG;
+            }
+            buffer[length++] = (byte) b;
+        }
+        if (length > 0 && buffer[length - 1] == '\r') {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Answers a single command
+     *
+     * @param line the command
+     * @param out  where to write the answer
+     * @return false if the session should end
+     * @throws IOException if the answer can't be written
+     */
+    private boolean handle(String line, Writer out) throws IOException {
+        if (line.startsWith("PRESS ")) {
+            int light = parseLight(line);
+            if (light < 0) {
+                out.write("ERR bad light\n");
+                return true;
+            }
+            switch (engine.addUserInput(light)) {
+                case SimonEngine.INPUT_CORRECT:
+                    out.write("OK\n");
+                    break;
+                case SimonEngine.INPUT_ROUND_COMPLETE:
+                    writeStep(out, engine.getGameSequence().size() - 1);
+                    break;
+                case SimonEngine.INPUT_WRONG:
+                    out.write("OVER ");
+                    out.write(Integer.toString(engine.getScore()));
+                    out.write('\n');
+                    break;
+                default:
+                    out.write("ERR no game\n");
+                    break;
+            }
+        } else if (line.equals("START")) {
+            engine.startNewGame();
+            out.write("GAME ");
+            out.write(Long.toString(engine.getGameSeed()));
+            out.write('\n');
+            writeStep(out, 0);
+        } else if (line.equals("QUIT")) {
+            out.write("BYE\n");
+            return false;
+        } else {
+            out.write("ERR unknown command\n");
+        }
+        return true;
+    }
+
+    /**
+     * Writes a single step of the sequence
+     *
+     * @param out   where to write the step
+     * @param index the index of the step
+     * @throws IOException if the step can't be written
+     */
+    private void writeStep(Writer out, int index) throws IOException {
+        out.write("STEP ");
+        out.write(Integer.toString(engine.getGameSequence().get(index)));
+        out.write('\n');
+    }
+
+    /**
+     * Reads the light index from a PRESS command
+     *
+     * @param line the command
+     * @return the light index, or -1 if it is not a valid light
+     */
+    private int parseLight(String line) {
+        int light = 0;
+        int length = line.length();
+        if (length == 6 || length > 9) {
+            return -1;
+        }
+        for (int i = 6; i < length; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            light = light * 10 + digit;
+        }
+        return light < engine.getLightCount() ? light : -1;
+    }
+
+    /**
+     * Closes the connection, which ends the session's thread
+     */
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 7:50 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.server
+ * Class: SessionRegistry
+ *
+ * Description: A concurrent registry of live sessions with idle eviction
+ *
+ * ****************************************
+ */
+
+package simongame.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of every live {@link GameSession}. Sessions are kept in a
+ * {@link ConcurrentHashMap}, so registering and removing them never takes
+ * a global lock. A background sweep closes sessions that have been idle
+ * for longer than the timeout.
+ */
+public class SessionRegistry implements AutoCloseable {
+
+    /**
+     * The live sessions by id
+     */
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * How long a session may stay idle before it is evicted, in nanoseconds
+     */
+    private final long idleTimeoutNanos;
+
+    /**
+     * The thread that runs the idle sweep
+     */
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Constructs a registry that evicts idle sessions
+     *
+     * @param idleTimeoutMs how long a session may stay idle, in milliseconds
+     */
+    public SessionRegistry(long idleTimeoutMs) {
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simon-session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // Sweep a few times per timeout so sessions don't linger much past it
+        long period = Math.max(1, idleTimeoutMs / 4);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a session
+     *
+     * @param session the session to add
+     */
+    public void add(GameSession session) {
+        sessions.put(session.getId(), session);
+    }
+
+    /**
+     * Removes a session
+     *
+     * @param session the session to remove
+     */
+    public void remove(GameSession session) {
+        sessions.remove(session.getId(), session);
+    }
+
+    /**
+     * A getter method for the number of live sessions
+     *
+     * @return the number of live sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes every session that has been idle for longer than the timeout.
+     * A closed session removes itself once its thread notices.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (GameSession session : sessions.values()) {
+            if (now - session.getLastActiveNanos() > idleTimeoutNanos) {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * Stops the sweep and closes every session
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        for (GameSession session : sessions.values()) {
+            session.close();
+        }
+    }
+}
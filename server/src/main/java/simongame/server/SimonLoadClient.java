@@ -0,0 +1,335 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 8:30 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.server
+ * Class: SimonLoadClient
+ *
+ * Description: A local load client that checks the server's throughput and latency
+ *
+ * ****************************************
+ */
+
+package simongame.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import simongame.engine.SplitMixRandom;
+
+/**
+ * A main class that opens many client connections to a {@link SimonServer}
+ * and plays every game correctly until the run ends. Each press is timed
+ * from sending {@code PRESS} to reading the answer. At the end the client
+ * prints the throughput and latency percentiles and checks them against
+ * the targets, exiting with status 1 if a target was missed.
+ * <p>
+ * The options are {@code --host}, {@code --port} (default 7777),
+ * {@code --clients} (default 1000), {@code --duration-s} (default 10),
+ * {@code --max-round} (default 20), {@code --target-p99-ms} (default 5)
+ * and {@code --target-throughput} in presses per second (default 50000).
+ */
+public class SimonLoadClient {
+
+    /**
+     * The number of latency samples each client keeps
+     */
+    private static final int SAMPLES_PER_CLIENT = 4096;
+
+    /**
+     * A single simulated player
+     */
+    static final class Client implements Runnable {
+
+        /**
+         * The server's host
+         */
+        private final String host;
+
+        /**
+         * The server's port
+         */
+        private final int port;
+
+        /**
+         * The round after which the client starts a new game
+         */
+        private final int maxRound;
+
+        /**
+         * When the run ends, from {@link System#nanoTime()}
+         */
+        private final long deadline;
+
+        /**
+         * Counted down once the client is connected
+         */
+        private final CountDownLatch connected;
+
+        /**
+         * Counted down once the client has finished
+         */
+        private final CountDownLatch finished;
+
+        /**
+         * A reservoir sample of press latencies in nanoseconds
+         */
+        final long[] samples = new long[SAMPLES_PER_CLIENT];
+
+        /**
+         * Picks which latencies replace older samples
+         */
+        private final SplitMixRandom random;
+
+        /**
+         * The number of presses made
+         */
+        long presses;
+
+        /**
+         * Did the client fail?
+         */
+        boolean failed;
+
+        /**
+         * Constructs a client
+         *
+         * @param host      the server's host
+         * @param port      the server's port
+         * @param maxRound  the round after which the client starts a new game
+         * @param deadline  when the run ends, from {@link System#nanoTime()}
+         * @param seed      the seed for sampling
+         * @param connected counted down once the client is connected
+         * @param finished  counted down once the client has finished
+         */
+        Client(String host, int port, int maxRound, long deadline, long seed,
+               CountDownLatch connected, CountDownLatch finished) {
+            this.host = host;
+            this.port = port;
+            this.maxRound = maxRound;
+            this.deadline = deadline;
+            this.random = new SplitMixRandom(seed);
+            this.connected = connected;
+            this.finished = finished;
+        }
+
+        /**
+         * Plays games until the deadline
+         */
+        @Override
+        public void run() {
+            boolean counted = false;
+            try (Socket socket = new Socket(host, port);
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 Writer out = new BufferedWriter(
+                         new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+                socket.setTcpNoDelay(true);
+                connected.countDown();
+                counted = true;
+
+                int[] sequence = new int[maxRound + 1];
+                while (System.nanoTime() < deadline) {
+                    // Start a game and read its first step
+                    out.write("START\n");
+                    out.flush();
+                    expect(in.readLine(), "GAME ");
+                    int length = 0;
+                    sequence[length++] = parseStep(in.readLine());
+
+                    while (length <= maxRound && System.nanoTime() < deadline) {
+                        for (int i = 0; i < length; i++) {
+                            long start = System.nanoTime();
+                            out.write("PRESS ");
+                            out.write(Integer.toString(sequence[i]));
+                            out.write('\n');
+                            out.flush();
+                            String answer = in.readLine();
+                            record(System.nanoTime() - start);
+
+                            if (i < length - 1) {
+                                expect(answer, "OK");
+                            } else {
+                                // The round is complete, the answer is the next step
+                                sequence[length++] = parseStep(answer);
+                                break;
+                            }
+                        }
+                    }
+                }
+                out.write("QUIT\n");
+                out.flush();
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+                System.err.println("Client failed: " + e.getMessage());
+            } finally {
+                if (!counted) {
+                    connected.countDown();
+                }
+                finished.countDown();
+            }
+        }
+
+        /**
+         * Keeps a latency in the reservoir
+         *
+         * @param nanos the latency in nanoseconds
+         */
+        private void record(long nanos) {
+            if (presses < SAMPLES_PER_CLIENT) {
+                samples[(int) presses] = nanos;
+            } else {
+                long slot = random.nextLong(presses + 1);
+                if (slot < SAMPLES_PER_CLIENT) {
+                    samples[(int) slot] = nanos;
+                }
+            }
+            presses++;
+        }
+
+        /**
+         * Checks that an answer starts as expected
+         *
+         * @param answer the answer from the server
+         * @param prefix the expected start of the answer
+         */
+        private static void expect(String answer, String prefix) {
+            if (answer == null || !answer.startsWith(prefix)) {
+                throw new IllegalStateException("Expected " + prefix + " but got " + answer);
+            }
+        }
+
+        /**
+         * Reads the light from a STEP answer
+         *
+         * @param answer the answer from the server
+         * @return the light of the new step
+         */
+        private static int parseStep(String answer) {
+            expect(answer, "STEP ");
+            return Integer.parseInt(answer, 5, answer.length(), 10);
+        }
+    }
+
+    /**
+     * The main method that runs the load test
+     *
+     * @param args the command line options
+     * @throws InterruptedException if the run is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port = 7777;
+        int clients = 1000;
+        long durationS = 10;
+        int maxRound = 20;
+        double targetP99Ms = 5;
+        double targetThroughput = 50_000;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --option=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "--host":
+                    host = option[1];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(option[1]);
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(option[1]);
+                    break;
+                case "--duration-s":
+                    durationS = Long.parseLong(option[1]);
+                    break;
+                case "--max-round":
+                    maxRound = Integer.parseInt(option[1]);
+                    break;
+                case "--target-p99-ms":
+                    targetP99Ms = Double.parseDouble(option[1]);
+                    break;
+                case "--target-throughput":
+                    targetThroughput = Double.parseDouble(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch finished = new CountDownLatch(clients);
+        Client[] players = new Client[clients];
+        ExecutorService executor = SimonServer.newSessionExecutor();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationS);
+        for (int i = 0; i < clients; i++) {
+            players[i] = new Client(host, port, maxRound, deadline, i, connected, finished);
+            executor.execute(players[i]);
+        }
+        connected.await();
+        finished.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        // Merge every client's samples
+        long presses = 0;
+        int failures = 0;
+        int sampleCount = 0;
+        long[] merged = new long[clients * SAMPLES_PER_CLIENT];
+        for (Client player : players) {
+            presses += player.presses;
+            failures += player.failed ? 1 : 0;
+            int kept = (int) Math.min(player.presses, SAMPLES_PER_CLIENT);
+            System.arraycopy(player.samples, 0, merged, sampleCount, kept);
+            sampleCount += kept;
+        }
+        Arrays.sort(merged, 0, sampleCount);
+
+        double throughput = presses / (elapsed / 1e9);
+        double p50 = percentileMs(merged, sampleCount, 0.50);
+        double p99 = percentileMs(merged, sampleCount, 0.99);
+        double p999 = percentileMs(merged, sampleCount, 0.999);
+        boolean pass = failures == 0 && p99 <= targetP99Ms && throughput >= targetThroughput;
+
+        System.out.printf(Locale.ROOT,
+                "clients=%d failures=%d presses=%d throughput=%.0f/s p50=%.3fms p99=%.3fms p99.9=%.3fms%n",
+                clients, failures, presses, throughput, p50, p99, p999);
+        System.out.printf(Locale.ROOT, "target p99<=%.3fms throughput>=%.0f/s: %s%n",
+                targetP99Ms, targetThroughput, pass ? "PASS" : "FAIL");
+        if (!pass) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns a percentile of sorted latencies in milliseconds
+     *
+     * @param sorted     the sorted latencies in nanoseconds
+     * @param count      the number of latencies
+     * @param percentile the percentile between 0 and 1
+     * @return the latency at that percentile in milliseconds
+     */
+    private static double percentileMs(long[] sorted, int count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
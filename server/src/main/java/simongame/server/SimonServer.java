@@ -0,0 +1,244 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 8:05 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.server
+ * Class: SimonServer
+ *
+ * Description: A TCP server that hosts many Simon sessions at once
+ *
+ * ****************************************
+ */
+
+package simongame.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import simongame.engine.GameRandom;
+import simongame.engine.SplitMixRandom;
+
+/**
+ * A main class that hosts Simon sessions over a simple line protocol (see
+ * {@link GameSession}). Every connection gets its own session running on
+ * its own virtual thread, so thousands of mostly idle clients cost little
+ * more than their sockets. On a JDK without virtual threads the sessions
+ * fall back to a cached pool of platform threads.
+ * <p>
+ * The options are {@code --port} (default 7777), {@code --bind} (default
+ * the loopback address), {@code --idle-timeout-ms} (default 30000) and
+ * {@code --seed}.
+ */
+public class SimonServer implements AutoCloseable {
+
+    /**
+     * How long the accept thread waits after a failed accept, so a
+     * persistent failure such as running out of file descriptors does not
+     * spin the thread
+     */
+    private static final long ACCEPT_BACKOFF_MS = 100;
+
+    /**
+     * The socket clients connect to
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * The registry of live sessions
+     */
+    private final SessionRegistry registry;
+
+    /**
+     * The executor that runs one task per session
+     */
+    private final ExecutorService sessionExecutor;
+
+    /**
+     * The stream every session's random stream is split from. Only the
+     * accept thread uses it.
+     */
+    private final GameRandom master;
+
+    /**
+     * How long a session's read may block before the session is dropped,
+     * in milliseconds
+     */
+    private final int readTimeoutMs;
+
+    /**
+     * The id of the next session
+     */
+    private long nextSessionId;
+
+    /**
+     * Constructs a server and starts listening
+     *
+     * @param address       the address to listen on
+     * @param idleTimeoutMs how long a session may stay idle, in milliseconds
+     * @param seed          the master seed of every session's games
+     * @throws IOException if the server socket can't be opened
+     */
+    public SimonServer(InetSocketAddress address, long idleTimeoutMs, long seed) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(address, 4096);
+        this.registry = new SessionRegistry(idleTimeoutMs);
+        this.readTimeoutMs = (int) Math.max(1, Math.min(Integer.MAX_VALUE, idleTimeoutMs));
+        this.sessionExecutor = newSessionExecutor();
+        this.master = new SplitMixRandom(seed);
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread, or a
+     * cached thread pool if this JDK has no virtual threads
+     *
+     * @return the executor
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "simon-session");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * A getter method for the port the server listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * A getter method for the registry of live sessions
+     *
+     * @return the registry
+     */
+    public SessionRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Accepts connections until the server is closed or the accept thread
+     * is interrupted
+     */
+    public void serve() {
+        while (!serverSocket.isClosed() && !Thread.currentThread().isInterrupted()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Could not accept a connection: " + e.getMessage());
+                    backOff();
+                }
+                continue;
+            }
+            try {
+                socket.setTcpNoDelay(true);
+                // A client that stops sending ends its own session rather
+                // than pinning a thread until the next sweep
+                socket.setSoTimeout(readTimeoutMs);
+            } catch (IOException e) {
+                System.err.println("Could not set up a connection: " + e.getMessage());
+                closeQuietly(socket);
+                continue;
+            }
+            GameSession session = new GameSession(nextSessionId++, socket, registry, master.split());
+            registry.add(session);
+            sessionExecutor.execute(session);
+        }
+    }
+
+    /**
+     * Pauses the accept thread after a failed accept
+     */
+    private void backOff() {
+        try {
+            Thread.sleep(ACCEPT_BACKOFF_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes a socket that never became a session
+     *
+     * @param socket the socket to close
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes every session
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        registry.close();
+        sessionExecutor.shutdown();
+    }
+
+    /**
+     * The main method that runs the server
+     *
+     * @param args the command line options
+     * @throws IOException if the server socket can't be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 7777;
+        String bind = InetAddress.getLoopbackAddress().getHostAddress();
+        long idleTimeoutMs = 30_000;
+        long seed = SplitMixRandom.randomSeed();
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --option=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "--port":
+                    port = Integer.parseInt(option[1]);
+                    break;
+                case "--bind":
+                    bind = option[1];
+                    break;
+                case "--idle-timeout-ms":
+                    idleTimeoutMs = Long.parseLong(option[1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        SimonServer server = new SimonServer(new InetSocketAddress(bind, port), idleTimeoutMs, seed);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.err.println("Simon server listening on " + bind + ":" + server.getPort() + " with seed " + seed);
+        server.serve();
+    }
+}
@@ -0,0 +1,128 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 4:10 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.bench
+ * Class: LegacySequenceModel
+ *
+ * Description: The original ObservableList sequence handling, kept as a baseline
+ *
+ * ****************************************
+ */
+
+package simongame.bench;
+
+import java.util.Random;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * A copy of the sequence handling {@code SimonModel} used before the
+ * packed {@code SequenceBuffer}: boxed {@link ObservableList}s and a
+ * re-scan of the whole user prefix on every press. The benchmarks use it
+ * as the baseline to compare new data structures against.
+ */
+public class LegacySequenceModel {
+
+    /**
+     * The number of lights in the game
+     */
+    private static final int LIGHT_COUNT = 4;
+
+    /**
+     * The game sequence
+     */
+    private final ObservableList<Integer> gameSequence = FXCollections.observableArrayList();
+
+    /**
+     * The user sequence
+     */
+    private final ObservableList<Integer> userSequence = FXCollections.observableArrayList();
+
+    /**
+     * A random number generator
+     */
+    private final Random random = new Random();
+
+    /**
+     * Is a game in progress?
+     */
+    private boolean gameInProgress;
+
+    /**
+     * The current score
+     */
+    private int score;
+
+    /**
+     * A getter method for the game sequence
+     *
+     * @return the game sequence
+     */
+    public ObservableList<Integer> getGameSequence() {
+        return gameSequence;
+    }
+
+    /**
+     * A getter method for the number of presses made in this round
+     *
+     * @return the number of presses made in this round
+     */
+    public int getUserSequenceSize() {
+        return userSequence.size();
+    }
+
+    /**
+     * A method to start a new game
+     */
+    public void startNewGame() {
+        gameSequence.clear();
+        userSequence.clear();
+        gameInProgress = true;
+        score = 0;
+        generateNextInSequence();
+    }
+
+    /**
+     * A method to generate the next light in the sequence
+     */
+    public void generateNextInSequence() {
+        gameSequence.add(random.nextInt(LIGHT_COUNT));
+    }
+
+    /**
+     * A method to add user input
+     *
+     * @param lightIndex the index of the light the user pressed
+     * @return true if the game is still in progress
+     */
+    public boolean addUserInput(int lightIndex) {
+        if (!gameInProgress) return false;
+        userSequence.add(lightIndex);
+        if (!isSequenceCorrect()) {
+            gameInProgress = false;
+        } else if (userSequence.size() == gameSequence.size()) {
+            userSequence.clear();
+            score += 1;
+            generateNextInSequence();
+        }
+        return gameInProgress;
+    }
+
+    /**
+     * A method to check if the user sequence is correct
+     *
+     * @return true if every press so far matches the game sequence
+     */
+    private boolean isSequenceCorrect() {
+        for (int i = 0; i < userSequence.size(); i++) {
+            if (!userSequence.get(i).equals(gameSequence.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 4:40 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.bench
+ * Class: LightBenchmark
+ *
+ * Description: Benchmarks for toggling a light
+ *
+ * ****************************************
+ */
+
+package simongame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.paint.Color;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import simongame.Light;
+import simongame.engine.PadLight;
+
+/**
+ * Benchmarks {@link Light#toggle()}, which goes through the JavaFX
+ * properties, against toggling the engine {@link PadLight} on its own
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LightBenchmark {
+
+    /**
+     * The JavaFX light under test
+     */
+    private Light light;
+
+    /**
+     * The engine light under test
+     */
+    private PadLight padLight;
+
+    /**
+     * Builds the lights
+     */
+    @Setup
+    public void setUp() {
+        light = new Light(Color.RED);
+        padLight = new PadLight(0xFFFF0000);
+    }
+
+    /**
+     * Toggles the JavaFX light
+     *
+     * @return is the light now on?
+     */
+    @Benchmark
+    public boolean toggle() {
+        light.toggle();
+        return light.isIsOn();
+    }
+
+    /**
+     * Toggles the engine light
+     *
+     * @return is the light now on?
+     */
+    @Benchmark
+    public boolean toggleEngine() {
+        padLight.toggle();
+        return padLight.isOn();
+    }
+}
@@ -0,0 +1,103 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 4:55 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.bench
+ * Class: PlaybackBenchmark
+ *
+ * Description: Benchmarks for building the playback of a round
+ *
+ * ****************************************
+ */
+
+package simongame.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import simongame.SequencePlayer;
+import simongame.TempoCurve;
+import simongame.model.SimonModel;
+
+/**
+ * Benchmarks the work done before a round plays. The legacy benchmark
+ * builds a {@link Timeline} the way {@code displaySequence} used to, the
+ * other prepares the reusable {@link SequencePlayer}. Neither starts the
+ * animation, since that needs the JavaFX thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlaybackBenchmark {
+
+    /**
+     * The length of the sequence to play
+     */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int length;
+
+    /**
+     * The model that holds the sequence
+     */
+    private SimonModel model;
+
+    /**
+     * The player under test
+     */
+    private SequencePlayer player;
+
+    /**
+     * Builds a sequence of the requested length and a player for it
+     */
+    @Setup
+    public void setUp() {
+        model = new SimonModel();
+        model.startNewGame();
+        while (model.getGameSequence().size() < length) {
+            model.generateNextInSequence();
+        }
+        player = new SequencePlayer(model.getGameSequence(),
+                Duration.seconds(2), Duration.seconds(1),
+                new TempoCurve(0.05, 3.0), i -> { }, i -> { });
+    }
+
+    /**
+     * Builds a timeline for the round the way displaySequence used to
+     *
+     * @return the timeline
+     */
+    @Benchmark
+    public Timeline buildLegacyTimeline() {
+        AtomicInteger sequenceIndex = new AtomicInteger(0);
+        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(2), event -> {
+            model.getGameSequence().get(sequenceIndex.getAndIncrement());
+        }));
+        timeline.setCycleCount(model.getGameSequence().size());
+        return timeline;
+    }
+
+    /**
+     * Prepares the reusable player for the round
+     *
+     * @return the number of steps in the round
+     */
+    @Benchmark
+    public int preparePlayer() {
+        return player.prepare();
+    }
+}
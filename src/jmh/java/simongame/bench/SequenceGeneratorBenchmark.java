@@ -0,0 +1,100 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 6:20 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.bench
+ * Class: SequenceGeneratorBenchmark
+ *
+ * Description: Benchmarks for the sequence generation strategies
+ *
+ * ****************************************
+ */
+
+package simongame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+import simongame.engine.SplitMixRandom;
+
+/**
+ * Benchmarks {@link SimonEngine#generateNextInSequence()} and a wrong and
+ * a right press with each {@link SequenceGenerator}, on boards of
+ * {@code pads} lights. Generating steps keeps growing one game's sequence
+ * for the whole iteration, so the cost of filling a block is spread over
+ * the steps read from it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SequenceGeneratorBenchmark {
+
+    /**
+     * The name of the generator, see {@link SequenceGenerator#named(String, int)}
+     */
+    @Param({"uniform", "no-repeat", "markov", "adaptive"})
+    public String generator;
+
+    /**
+     * The number of lights on the board
+     */
+    @Param({"4", "64"})
+    public int pads;
+
+    /**
+     * The generator under test
+     */
+    private SequenceGenerator strategy;
+
+    /**
+     * The engine under test
+     */
+    private SimonEngine engine;
+
+    /**
+     * Builds an engine with the generator and starts a game
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        strategy = SequenceGenerator.named(generator, pads);
+        engine = new SimonEngine(new SplitMixRandom(42), pads, strategy);
+        engine.startNewGame();
+    }
+
+    /**
+     * Adds the next step to the sequence
+     *
+     * @return the size of the sequence
+     */
+    @Benchmark
+    public int generateNextInSequence() {
+        engine.generateNextInSequence();
+        return engine.getGameSequence().size();
+    }
+
+    /**
+     * Tells the generator about a missed light and a hit one, the update an
+     * adaptive generator makes on every press
+     *
+     * @return the generator
+     */
+    @Benchmark
+    public SequenceGenerator pressed() {
+        strategy.pressed(1, false);
+        strategy.pressed(1, true);
+        return strategy;
+    }
+}
@@ -0,0 +1,119 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 4:25 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.bench
+ * Class: SimonModelBenchmark
+ *
+ * Description: Benchmarks for the model's sequence hot paths
+ *
+ * ****************************************
+ */
+
+package simongame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import simongame.model.SimonModel;
+
+/**
+ * Benchmarks {@link SimonModel#addUserInput(int)} and
+ * {@link SimonModel#generateNextInSequence()} against the original
+ * {@link LegacySequenceModel}. Every iteration starts from a fresh game
+ * whose sequence is {@code length} steps long. Pressing lights plays the
+ * current round correctly, and generating steps keeps growing the
+ * sequence for the rest of the iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimonModelBenchmark {
+
+    /**
+     * The length of the sequence at the start of every iteration
+     */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int length;
+
+    /**
+     * The model under test
+     */
+    private SimonModel model;
+
+    /**
+     * The original model to compare against
+     */
+    private LegacySequenceModel legacy;
+
+    /**
+     * Builds both models with a sequence of the requested length
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        model = new SimonModel();
+        model.startNewGame();
+        while (model.getGameSequence().size() < length) {
+            model.generateNextInSequence();
+        }
+
+        legacy = new LegacySequenceModel();
+        legacy.startNewGame();
+        while (legacy.getGameSequence().size() < length) {
+            legacy.generateNextInSequence();
+        }
+    }
+
+    /**
+     * Presses the light the model expects next
+     *
+     * @return the result of the press
+     */
+    @Benchmark
+    public int addUserInput() {
+        return model.addUserInput(model.getGameSequence().get(model.getInputCursor()));
+    }
+
+    /**
+     * Presses the light the original model expects next
+     *
+     * @return true if the game is still in progress
+     */
+    @Benchmark
+    public boolean addUserInputLegacy() {
+        return legacy.addUserInput(legacy.getGameSequence().get(legacy.getUserSequenceSize()));
+    }
+
+    /**
+     * Adds a step to the model's sequence
+     *
+     * @return the length of the sequence
+     */
+    @Benchmark
+    public int generateNextInSequence() {
+        model.generateNextInSequence();
+        return model.getGameSequence().size();
+    }
+
+    /**
+     * Adds a step to the original model's sequence
+     *
+     * @return the length of the sequence
+     */
+    @Benchmark
+    public int generateNextInSequenceLegacy() {
+        legacy.generateNextInSequence();
+        return legacy.getGameSequence().size();
+    }
+}
@@ -1,5 +1,7 @@
 module SIMON {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.desktop;
+    requires transitive SIMON.engine;
     exports simongame;
 }
\ No newline at end of file
@@ -0,0 +1,350 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 11:00 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame
+ * Class: LatencyMonitor
+ *
+ * Description: Measures click-to-feedback latency and pulse durations
+ *
+ * ****************************************
+ */
+
+package simongame;
+
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import simongame.engine.metrics.LogHistogram;
+import simongame.engine.metrics.ReactionStats;
+import simongame.model.LightColorEnum;
+import simongame.view.SimonView;
+
+/**
+ * Measures how laggy the game feels. Two latencies are kept in
+ * {@link LogHistogram}s:
+ * <ul>
+ *     <li>click to feedback, from the mouse click on a light to the end of
+ *     the layout pass of the pulse that first renders its highlight</li>
+ *     <li>pulse duration, from the scene's pre-layout pulse listener to
+ *     the end of its layout pass, so it covers the CSS and layout work of
+ *     the scene</li>
+ * </ul>
+ * Pressing F3 shows an overlay with their p50, p99 and p99.9, along with
+ * the player's reaction times per pad if {@link ReactionStats} are set,
+ * how late the playback's flashes were if a {@link PlaybackClock} is set
+ * and the board's layout passes, resizes and update passes if a view is
+ * set, and a background thread appends the same numbers to a file every
+ * 10 seconds.
+ * <p>
+ * Marking a click or a highlight only stores a timestamp, and the pulse
+ * hooks only record into the histograms, so measuring allocates nothing.
+ * The hooks are pulse listeners rather than an animation timer, so they
+ * only see the pulses that already happen and never make JavaFX pulse on
+ * an idle board.
+ */
+public class LatencyMonitor {
+
+    /**
+     * How often the overlay is refreshed, in nanoseconds
+     */
+    private static final long OVERLAY_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * How often the numbers are appended to the dump file, in seconds
+     */
+    private static final long DUMP_PERIOD_S = 10;
+
+    /**
+     * The most pads whose reaction times fit in the overlay
+     */
+    private static final int OVERLAY_PADS = 16;
+
+    /**
+     * The latencies from a click to its rendered feedback, in nanoseconds
+     */
+    private final LogHistogram clickToFeedback = new LogHistogram();
+
+    /**
+     * The durations of pulses, in nanoseconds
+     */
+    private final LogHistogram pulseDuration = new LogHistogram();
+
+    /**
+     * The overlay that shows the numbers
+     */
+    private final Label overlay;
+
+    /**
+     * The time of the last click, or 0 if none is waiting for feedback.
+     * Only touched on the JavaFX thread.
+     */
+    private long clickNanos;
+
+    /**
+     * Has the last click's feedback been applied to the scene graph?
+     */
+    private boolean feedbackPending;
+
+    /**
+     * The start of the current pulse, from the pre-layout listener
+     */
+    private long pulseStartNanos;
+
+    /**
+     * When the overlay was last refreshed
+     */
+    private long overlayRefreshedNanos;
+
+    /**
+     * The thread that writes the dump file, or null if there is none
+     */
+    private ScheduledExecutorService dumper;
+
+    /**
+     * The file the numbers are appended to
+     */
+    private Path dumpFile;
+
+    /**
+     * The player's reaction times, or null if they aren't shown
+     */
+    private volatile ReactionStats reactionStats;
+
+    /**
+     * How late the playback's edges were, or null if it isn't shown
+     */
+    private volatile LogHistogram playbackLateness;
+
+    /**
+     * The view whose layout passes are counted, or null if they aren't shown
+     */
+    private volatile SimonView view;
+
+    /**
+     * Starts measuring the pulses of a scene
+     *
+     * @param scene   the scene to measure
+     * @param overlay the label to show the numbers in, hidden until F3 is pressed
+     */
+    public LatencyMonitor(Scene scene, Label overlay) {
+        this.overlay = overlay;
+        overlay.setVisible(false);
+        overlay.managedProperty().bind(overlay.visibleProperty());
+
+        // Runs when the scene's pulse starts, before CSS and layout
+        scene.addPreLayoutPulseListener(() -> pulseStartNanos = System.nanoTime());
+        scene.addPostLayoutPulseListener(this::pulseLaidOut);
+
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F3) {
+                overlay.setVisible(!overlay.isVisible());
+                refreshOverlay();
+            }
+        });
+    }
+
+    /**
+     * Marks a click on a light. Call this first thing in the click handler.
+     */
+    public void markClick() {
+        clickNanos = System.nanoTime();
+        feedbackPending = false;
+    }
+
+    /**
+     * Marks that the last click's highlight has been applied to the scene
+     * graph. It is timed once the next pulse has laid it out.
+     */
+    public void markFeedback() {
+        if (clickNanos != 0) {
+            feedbackPending = true;
+        }
+    }
+
+    /**
+     * Records the pulse that just finished its layout pass, along with the
+     * click whose feedback it renders
+     */
+    private void pulseLaidOut() {
+        long now = System.nanoTime();
+        if (pulseStartNanos != 0) {
+            pulseDuration.record(now - pulseStartNanos);
+            pulseStartNanos = 0;
+        }
+        if (feedbackPending) {
+            clickToFeedback.record(now - clickNanos);
+            feedbackPending = false;
+            clickNanos = 0;
+        }
+        if (overlay.isVisible() && now - overlayRefreshedNanos >= OVERLAY_PERIOD_NANOS) {
+            refreshOverlay();
+        }
+    }
+
+    /**
+     * Shows the current numbers in the overlay
+     */
+    private void refreshOverlay() {
+        overlayRefreshedNanos = System.nanoTime();
+        overlay.setText(summary("\n", "", OVERLAY_PADS));
+    }
+
+    /**
+     * Sets the player's reaction times to show with the latencies
+     *
+     * @param reactionStats the reaction times, or null to hide them
+     */
+    public void setReactionStats(ReactionStats reactionStats) {
+        this.reactionStats = reactionStats;
+    }
+
+    /**
+     * Sets the clock whose edges' lateness is shown with the latencies
+     *
+     * @param clock the playback clock, or null to hide it
+     */
+    public void setPlaybackClock(PlaybackClock clock) {
+        this.playbackLateness = clock != null ? clock.getLateness() : null;
+    }
+
+    /**
+     * Sets the view whose board layout passes and resizes are shown with
+     * the latencies
+     *
+     * @param view the view, or null to hide them
+     */
+    public void setView(SimonView view) {
+        this.view = view;
+    }
+
+    /**
+     * Formats every histogram, one per line
+     *
+     * @param separator what goes between lines
+     * @param prefix    what goes before each line
+     * @param maxPads   the most pads to list reaction times for
+     * @return the formatted numbers
+     */
+    private String summary(String separator, String prefix, int maxPads) {
+        StringBuilder text = new StringBuilder();
+        text.append(prefix).append(format("click", clickToFeedback));
+        text.append(separator).append(prefix).append(format("pulse", pulseDuration));
+        LogHistogram late = playbackLateness;
+        if (late != null) {
+            text.append(separator).append(prefix).append(format("edge-late", late));
+        }
+        SimonView board = view;
+        if (board != null) {
+            text.append(separator).append(prefix).append(String.format(Locale.ROOT,
+                    "board layouts=%d resizes=%d updates=%d changes=%d", board.getLayoutPassCount(),
+                    board.getGeometryUpdateCount(), board.getUpdates().getPassCount(),
+                    board.getUpdates().getChangeCount()));
+        }
+        ReactionStats stats = reactionStats;
+        if (stats != null) {
+            // The classic board names its pads by color, bigger boards by number
+            LightColorEnum[] colors = LightColorEnum.values();
+            int count = stats.getLightCount();
+            for (int i = 0; i < Math.min(count, maxPads); i++) {
+                String pad = count == colors.length ? colors[i].name().toLowerCase(Locale.ROOT) : "pad" + i;
+                text.append(separator).append(prefix).append(format("react-" + pad, stats.getByLight(i)));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * A getter method for the click-to-feedback latencies
+     *
+     * @return the histogram, in nanoseconds
+     */
+    public LogHistogram getClickToFeedback() {
+        return clickToFeedback;
+    }
+
+    /**
+     * A getter method for the pulse durations
+     *
+     * @return the histogram, in nanoseconds
+     */
+    public LogHistogram getPulseDuration() {
+        return pulseDuration;
+    }
+
+    /**
+     * Starts appending the numbers to a file every 10 seconds
+     *
+     * @param file the file to append to
+     */
+    public void startDump(Path file) {
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simon-latency-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleWithFixedDelay(this::dump, DUMP_PERIOD_S, DUMP_PERIOD_S, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Appends the numbers to the dump file. Runs on the dump thread.
+     */
+    private void dump() {
+        try (Writer out = Files.newBufferedWriter(dumpFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(summary(System.lineSeparator(), Instant.now() + " ", Integer.MAX_VALUE)
+                    + System.lineSeparator());
+        } catch (IOException e) {
+            System.err.println("Could not write the latency dump: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the dump thread, letting a dump that is already being written
+     * finish, then writes the numbers one last time
+     */
+    public void stopDump() {
+        if (dumper != null) {
+            dumper.shutdown();
+            try {
+                dumper.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dump();
+        }
+    }
+
+    /**
+     * Formats the percentiles of a histogram in milliseconds
+     *
+     * @param name      the name of the histogram
+     * @param histogram the histogram, in nanoseconds
+     * @return the formatted numbers
+     */
+    private static String format(String name, LogHistogram histogram) {
+        return String.format(Locale.ROOT, "%s n=%d p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                name, histogram.getCount(),
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMax() / 1e6);
+    }
+}
@@ -18,10 +18,13 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.paint.Color;
 
+import simongame.engine.PadLight;
+
 /**
  * A simple abstraction for a basic light that can turn on and off.
  * Our light will also have a color which the class will manage
- * to simulate darkening
+ * to simulate darkening. The state itself lives in an engine
+ * {@link PadLight}, this class exposes it as JavaFX properties.
  */
 public class Light {
 
@@ -81,6 +84,11 @@ public class Light {
      */
     private Color offColor;
 
+    /**
+     * The engine light that holds our state
+     */
+    private final PadLight padLight;
+
     /**
      * Construct a new Light instance that is currently set
      * to the light's off color
@@ -88,50 +96,74 @@ public class Light {
      * @param color represents the "on" color of the light
      */
     public Light(Color color) {
-        this.isOn = new SimpleBooleanProperty(false);
-        this.onColor = color;
-        this.offColor = color.darker();
-        this.currentColor = new SimpleObjectProperty<>(this.offColor);
+        this(new PadLight(toArgb(color)));
+    }
+
+    /**
+     * Construct a new Light instance that mirrors an engine light
+     *
+     * @param padLight the engine light that holds the state
+     */
+    public Light(PadLight padLight) {
+        this.padLight = padLight;
+        this.isOn = new SimpleBooleanProperty(padLight.isOn());
+        this.onColor = toColor(padLight.getOnArgb());
+        this.offColor = toColor(padLight.getOffArgb());
+        this.currentColor = new SimpleObjectProperty<>(padLight.isOn() ? this.onColor : this.offColor);
+
+        // Keep our properties in step with the engine light
+        padLight.setListener((on, argb) -> {
+            this.isOn.set(on);
+            this.currentColor.set(on ? this.onColor : this.offColor);
+        });
+    }
+
+    /**
+     * Get the engine light that holds our state
+     *
+     * @return the engine light
+     */
+    public PadLight getPadLight() {
+        return padLight;
     }
 
     /**
      * Toggle the state of the light to be either on or off
      */
     public void toggle() {
-        this.isOn.set(!this.isOn.get());
-        if (this.isOn.get()) {
-            this.currentColor.set(this.onColor);
-        } else {
-            this.currentColor.set(this.offColor);
-        }
+        padLight.toggle();
+    }
+
+    /**
+     * Turn the light on or off
+     *
+     * @param on should the light be on?
+     */
+    public void setOn(boolean on) {
+        padLight.setOn(on);
     }
 
     /**
-     * Turn our light on for a specified time. We do this in a separate
-     * thread as to not cause delays in the main JavaFX thread
+     * Converts a packed ARGB color from the engine to a JavaFX color
      *
-     * @param timeInMs the time in milliseconds to keep the light on
-     */
-    public void turnOnForMs(long timeInMs) {
-        Runnable r = () -> {
-            try {
-                // If we're not on, then turn on
-                if (!this.isOn.get()) {
-                    this.toggle();
-                    Thread.sleep(timeInMs);
-                }
-            } catch (InterruptedException e) {
-                // Do nothing
-            } finally {
-                // If we're on, then make sure we turn off
-                if (this.isIsOn()) {
-                    this.toggle();
-                }
-            }
-        };
-
-        // Encapsulate our Runnable in a thread and start it
-        Thread t = new Thread(r);
-        t.start();
+     * @param argb the color as packed ARGB
+     * @return the JavaFX color
+     */
+    public static Color toColor(int argb) {
+        return Color.rgb((argb >>> 16) & 0xFF, (argb >>> 8) & 0xFF, argb & 0xFF,
+                ((argb >>> 24) & 0xFF) / 255.0);
+    }
+
+    /**
+     * Converts a JavaFX color to a packed ARGB color for the engine
+     *
+     * @param color the JavaFX color
+     * @return the color as packed ARGB
+     */
+    public static int toArgb(Color color) {
+        return ((int) Math.round(color.getOpacity() * 255) << 24)
+                | ((int) Math.round(color.getRed() * 255) << 16)
+                | ((int) Math.round(color.getGreen() * 255) << 8)
+                | (int) Math.round(color.getBlue() * 255);
     }
 }
\ No newline at end of file
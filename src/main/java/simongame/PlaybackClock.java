@@ -0,0 +1,235 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 6:40 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame
+ * Class: PlaybackClock
+ *
+ * Description: Times the on and off edges of a round against the system clock
+ *
+ * ****************************************
+ */
+
+package simongame;
+
+import javafx.animation.AnimationTimer;
+
+import simongame.engine.metrics.LogHistogram;
+
+/**
+ * Times the flashes of a round. When a round starts, every step's on and
+ * off edge gets an absolute deadline on the {@link System#nanoTime()}
+ * clock, worked out from the start of the round and the step's index, so
+ * no edge depends on when the one before it happened and lateness never
+ * builds up over a long sequence.
+ * <p>
+ * One {@link AnimationTimer} runs while a round plays. Every pulse applies
+ * the edges whose deadlines have passed, in order, and records how late
+ * each one was, the time from its deadline to the pulse that applied it.
+ * A late pulse only makes the edges it applies late; the next edges keep
+ * their deadlines. Nothing is allocated per edge or per round.
+ */
+public class PlaybackClock {
+
+    /**
+     * Receives the edges of a round as they are applied
+     */
+    public interface EdgeHandler {
+
+        /**
+         * Called with one edge
+         *
+         * @param step          the index of the step
+         * @param on            true if the step's light turns on, false if
+         *                      it turns off
+         * @param latenessNanos how long after its deadline the edge was applied
+         */
+        void edge(int step, boolean on, long latenessNanos);
+    }
+
+    /**
+     * Receives the edges
+     */
+    private final EdgeHandler handler;
+
+    /**
+     * How late every edge was, in nanoseconds
+     */
+    private final LogHistogram lateness = new LogHistogram();
+
+    /**
+     * Applies the edges that are due on every pulse of a round
+     */
+    private final AnimationTimer timer = new AnimationTimer() {
+
+        /**
+         * Applies the edges that are due by this pulse
+         *
+         * @param now the time of the pulse, from {@link System#nanoTime()}
+         */
+        @Override
+        public void handle(long now) {
+            pulse(now);
+        }
+    };
+
+    /**
+     * When the round started, from {@link System#nanoTime()}
+     */
+    private long startNanos;
+
+    /**
+     * The time each step takes, in nanoseconds
+     */
+    private double periodNanos;
+
+    /**
+     * The time from the start of a step to its on edge, in nanoseconds
+     */
+    private double onOffsetNanos;
+
+    /**
+     * The number of edges in the round, two per step
+     */
+    private int edgeCount;
+
+    /**
+     * The index of the next edge to apply, even for on edges and odd for
+     * off edges
+     */
+    private int nextEdge;
+
+    /**
+     * How late the last edge was, in nanoseconds
+     */
+    private long lastLateness;
+
+    /**
+     * Is a round playing?
+     */
+    private boolean running;
+
+    /**
+     * Called when the last edge of a round has been applied, may be null
+     */
+    private Runnable onFinished;
+
+    /**
+     * Constructs a clock
+     *
+     * @param handler receives the edges
+     */
+    public PlaybackClock(EdgeHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Sets the callback to run when a round has finished
+     *
+     * @param onFinished the callback, or null for none
+     */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * Starts timing a round. Step i turns on at
+     * {@code startNanos + i * periodNanos + onOffsetNanos} and off at
+     * {@code startNanos + (i + 1) * periodNanos}.
+     *
+     * @param startNanos    when the round starts, from {@link System#nanoTime()}
+     * @param periodNanos   the time each step takes
+     * @param onOffsetNanos the time from the start of a step to its on edge,
+     *                      less than the period
+     * @param steps         the number of steps
+     */
+    public void start(long startNanos, double periodNanos, double onOffsetNanos, int steps) {
+        if (onOffsetNanos < 0 || onOffsetNanos >= periodNanos) {
+            throw new IllegalArgumentException("A light must turn on within its step");
+        }
+        this.startNanos = startNanos;
+        this.periodNanos = periodNanos;
+        this.onOffsetNanos = onOffsetNanos;
+        this.edgeCount = 2 * steps;
+        this.nextEdge = 0;
+        if (steps > 0) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Stops the round without applying the edges still to come
+     */
+    public void stop() {
+        running = false;
+        timer.stop();
+    }
+
+    /**
+     * Is a round playing?
+     *
+     * @return true if edges are still to come
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the deadline of an edge of the current round. Each deadline is
+     * worked out from the start of the round, not from the edge before it.
+     *
+     * @param edge the index of the edge
+     * @return the deadline, from {@link System#nanoTime()}
+     */
+    public long deadline(int edge) {
+        int step = edge >>> 1;
+        double offset = (edge & 1) == 0 ? step * periodNanos + onOffsetNanos : (step + 1) * periodNanos;
+        return startNanos + Math.round(offset);
+    }
+
+    /**
+     * Applies every edge whose deadline has passed, and finishes the round
+     * after its last edge
+     *
+     * @param now the time of the pulse, from {@link System#nanoTime()}
+     */
+    private void pulse(long now) {
+        while (running && nextEdge < edgeCount) {
+            long late = now - deadline(nextEdge);
+            if (late < 0) {
+                return;
+            }
+            int edge = nextEdge++;
+            lastLateness = late;
+            lateness.record(late);
+            handler.edge(edge >>> 1, (edge & 1) == 0, late);
+        }
+        if (running) {
+            stop();
+            if (onFinished != null) {
+                onFinished.run();
+            }
+        }
+    }
+
+    /**
+     * A getter method for how late the edges were
+     *
+     * @return the histogram of every edge's lateness, in nanoseconds
+     */
+    public LogHistogram getLateness() {
+        return lateness;
+    }
+
+    /**
+     * A getter method for how late the last edge was
+     *
+     * @return the lateness in nanoseconds
+     */
+    public long getLastLateness() {
+        return lastLateness;
+    }
+}
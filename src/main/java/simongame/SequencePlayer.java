@@ -0,0 +1,197 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 1:55 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame
+ * Class: SequencePlayer
+ *
+ * Description: A reusable player that flashes a sequence of lights
+ *
+ * ****************************************
+ */
+
+package simongame;
+
+import java.util.function.IntConsumer;
+
+import javafx.util.Duration;
+
+import simongame.engine.SequenceBuffer;
+
+/**
+ * Plays a {@link SequenceBuffer} by flashing one light per step.
+ * <p>
+ * The whole round is timed by one {@link PlaybackClock}. Each step lasts
+ * one period: the light turns on part way through it and off at the end
+ * of it, and every on and off edge has a deadline worked out from the
+ * start of the round, so the flashes stay on time however long the
+ * sequence and however busy the machine. Playing a longer sequence only
+ * changes the number of steps, and no objects are created per step or per
+ * round. The tempo divides the period.
+ */
+public class SequencePlayer {
+
+    /**
+     * The sequence to play
+     */
+    private final SequenceBuffer sequence;
+
+    /**
+     * The tempo curve that sets how fast each round plays
+     */
+    private final TempoCurve tempo;
+
+    /**
+     * Called with the light index when a light turns on
+     */
+    private final IntConsumer onLight;
+
+    /**
+     * Called with the light index when a light turns off
+     */
+    private final IntConsumer offLight;
+
+    /**
+     * The time each step takes at normal speed, in nanoseconds
+     */
+    private final double periodNanos;
+
+    /**
+     * The time from the start of a step to its light turning on at normal
+     * speed, in nanoseconds
+     */
+    private final double onOffsetNanos;
+
+    /**
+     * The {@link PlaybackClock} that times every step
+     */
+    private final PlaybackClock clock;
+
+    /**
+     * The index of the next step to turn on
+     */
+    private int onCursor;
+
+    /**
+     * The index of the next step to turn off
+     */
+    private int offCursor;
+
+    /**
+     * The number of steps being played
+     */
+    private int stepCount;
+
+    /**
+     * The playback rate of the round
+     */
+    private double rate = 1;
+
+    /**
+     * Constructs a {@link SequencePlayer}
+     *
+     * @param sequence the sequence to play
+     * @param period   the time each step takes at normal speed
+     * @param onTime   how long each light stays on at normal speed
+     * @param tempo    the tempo curve that sets how fast each round plays
+     * @param onLight  called with the light index when a light turns on
+     * @param offLight called with the light index when a light turns off
+     */
+    public SequencePlayer(SequenceBuffer sequence, Duration period, Duration onTime, TempoCurve tempo,
+                          IntConsumer onLight, IntConsumer offLight) {
+        if (onTime.greaterThanOrEqualTo(period)) {
+            throw new IllegalArgumentException("A light must turn off before the next step");
+        }
+        this.sequence = sequence;
+        this.tempo = tempo;
+        this.onLight = onLight;
+        this.offLight = offLight;
+        this.periodNanos = period.toMillis() * 1e6;
+        this.onOffsetNanos = period.subtract(onTime).toMillis() * 1e6;
+        this.clock = new PlaybackClock(this::edge);
+    }
+
+    /**
+     * Sets the callback to run when a round has finished playing
+     *
+     * @param onFinished the callback, or null for none
+     */
+    public void setOnFinished(Runnable onFinished) {
+        clock.setOnFinished(onFinished);
+    }
+
+    /**
+     * A getter method for the clock, which keeps how late every edge was
+     *
+     * @return the clock
+     */
+    public PlaybackClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Is a round currently playing?
+     *
+     * @return true if the player is running
+     */
+    public boolean isPlaying() {
+        return clock.isRunning();
+    }
+
+    /**
+     * Plays every step in the sequence from the start, at the tempo for
+     * the current round. The round's schedule is anchored to now.
+     */
+    public void play() {
+        stop();
+        if (prepare() > 0) {
+            clock.start(System.nanoTime(), periodNanos / rate, onOffsetNanos / rate, stepCount);
+        }
+    }
+
+    /**
+     * Sets up the next round without starting it. This is all the work a
+     * round needs before it plays, and unlike {@link #play()} it does not
+     * need the JavaFX thread.
+     *
+     * @return the number of steps in the round
+     */
+    public int prepare() {
+        stepCount = sequence.size();
+        onCursor = 0;
+        offCursor = 0;
+        if (stepCount > 0) {
+            rate = tempo.rateForRound(stepCount);
+        }
+        return stepCount;
+    }
+
+    /**
+     * Turns a step's light on or off. Called by the clock.
+     *
+     * @param step          the index of the step
+     * @param on            true to turn the light on
+     * @param latenessNanos how late the edge is
+     */
+    private void edge(int step, boolean on, long latenessNanos) {
+        if (on) {
+            onCursor = step + 1;
+            onLight.accept(sequence.get(step));
+        } else {
+            offCursor = step + 1;
+            offLight.accept(sequence.get(step));
+        }
+    }
+
+    /**
+     * Stops the current round and turns off any light that is still on
+     */
+    public void stop() {
+        clock.stop();
+        while (offCursor < onCursor) {
+            offLight.accept(sequence.get(offCursor++));
+        }
+    }
+}
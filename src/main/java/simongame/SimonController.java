@@ -14,28 +14,53 @@
 
 package simongame;
 
-import javafx.beans.binding.NumberBinding;
-import javafx.beans.binding.Bindings;
+import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
-import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
-import javafx.scene.effect.DropShadow;
-import javafx.scene.paint.Color;
 import javafx.scene.Cursor;
 
+import simongame.audio.ToneEngine;
+import simongame.engine.EngineListener;
+import simongame.engine.InputQueue;
+import simongame.engine.metrics.ReactionStats;
 import simongame.model.SimonModel;
+import simongame.view.PadImages;
 import simongame.view.SimonView;
+import simongame.view.UpdateDispatcher;
 
 /**
- * A controller class that controls the Simon game
+ * A controller class that controls the Simon game. Clicks on the lights
+ * and the game buttons don't act straight away: each is pushed onto an
+ * {@link InputQueue} as a timestamped event, and the queue is drained on
+ * the next pulse in the order the inputs arrived, a bounded number per
+ * pulse. The model's state decides whether a press counts, so presses
+ * made while the sequence plays are ignored.
  */
 public class SimonController {
 
+    /**
+     * The kind of input event for a press on a light; its value is the
+     * light index
+     */
+    private static final int INPUT_PRESS = 0;
+
+    /**
+     * The kind of input event for starting a new game
+     */
+    private static final int INPUT_START = 1;
+
+    /**
+     * The kind of input event for quitting the game
+     */
+    private static final int INPUT_QUIT = 2;
+
+    /**
+     * The most input events handled in one pulse; the rest wait for the
+     * next pulse
+     */
+    private static final int MAX_INPUTS_PER_PULSE = 32;
+
     /**
      * The {@link SimonModel} that represents the model of the Simon game
      */
@@ -48,22 +73,67 @@ public class SimonController {
     private SimonView theView;
 
     /**
-     * The {@link AtomicInteger} that represents the index of the
-     * current light in the sequence
+     * The {@link SequencePlayer} that plays the sequence to the user
+     */
+    private SequencePlayer player;
+
+    /**
+     * The {@link LatencyMonitor} that times clicks, or null if they
+     * aren't timed
      */
-    private AtomicInteger sequenceIndex;
+    private LatencyMonitor latencyMonitor;
 
     /**
-     * The {@link Timeline} that represents the timeline of the
-     * sequence display
+     * The {@link ReactionStats} that time how fast the player answers
      */
-    private Timeline timeline;
+    private ReactionStats reactionStats;
 
     /**
-     * The {@link Integer} that represents the index of the current
-     * light in the sequence
+     * The {@link ToneEngine} that sounds the lights, or null if they are
+     * silent
      */
-    private int currentIndexInSequence = 0; // To track user's progress in the sequence
+    private ToneEngine toneEngine;
+
+    /**
+     * Clears the feedback of a correct press after half a second, built
+     * once and restarted for every press
+     */
+    private final PauseTransition clickPause = new PauseTransition(Duration.seconds(0.5));
+
+    /**
+     * The light showing the feedback of a correct press, or -1 if none is
+     */
+    private int pressedLight = -1;
+
+    /**
+     * The inputs waiting for the next pulse
+     */
+    private final InputQueue inputQueue = new InputQueue(256);
+
+    /**
+     * Handles each drained input
+     */
+    private final InputQueue.Handler inputHandler = this::handleInput;
+
+    /**
+     * Drains the input queue once per pulse, then stops until more input
+     * arrives
+     */
+    private final AnimationTimer inputPump = new AnimationTimer() {
+
+        /**
+         * Handles the input that is waiting, stopping once none is left
+         *
+         * @param now the time of the pulse
+         */
+        @Override
+        public void handle(long now) {
+            inputQueue.drain(inputHandler, MAX_INPUTS_PER_PULSE);
+            if (inputQueue.isEmpty()) {
+                stop();
+            }
+        }
+    };
 
     /**
      * Constructs a {@link SimonController} object
@@ -78,8 +148,14 @@ public class SimonController {
         this.theModel = theModel;
         this.theView = theView;
 
-        // Initialize the bindings and event handlers
-        initBindings();
+        // Time the player's answers, keeping the last 4096 presses
+        this.reactionStats = new ReactionStats(theModel.getLights().size(), 4096);
+
+        // Initialize the sequence playback
+        initPlayer();
+        clickPause.setOnFinished(event -> releasePressedLight());
+
+        // Initialize the event handlers; the view sizes its own lights
         initEventHandlers();
 
         // Initialize the game controls
@@ -90,7 +166,8 @@ public class SimonController {
     }
 
     /**
-     * Updates the score display
+     * Updates the score display. The engine's changes only mark the score
+     * and the personal best dirty; the view shows them on the next pulse.
      *
      * @param theModel the {@link SimonModel} that represents the model
      *                 of the Simon game
@@ -98,38 +175,72 @@ public class SimonController {
      *                 the Simon game
      */
     private static void updateScores(SimonModel theModel, SimonView theView) {
-        // Call this method when the score in the model changes
-        theModel.scoreProperty().addListener((observable, oldValue, newValue) -> {
-            theView.updateScoreDisplay(newValue.intValue());
+        UpdateDispatcher updates = theView.getUpdates();
+        updates.setBest(theModel.personalBestProperty().get());
+        theModel.getEngine().addListener(new EngineListener() {
+
+            /**
+             * Shows the new score from the next pulse
+             *
+             * @param score the new score
+             */
+            @Override
+            public void scoreChanged(int score) {
+                updates.setScore(score);
+            }
+
+            /**
+             * Shows the personal best from the next pulse
+             *
+             * @param score the final score
+             */
+            @Override
+            public void gameOver(int score) {
+                // The model has already taken a new personal best
+                updates.setBest(theModel.personalBestProperty().get());
+            }
         });
     }
 
     /**
-     * Initializes the bindings
+     * Initializes the sequence player. Each step takes 2 seconds with the
+     * light on for 1 second, and every round plays 5% faster than the last
+     * up to 3 times the normal speed.
      */
-    private void initBindings() {
-        // Let's create a binding that is based on whatever dimension of our window is the largest
-        NumberBinding radiusBinding =
-                Bindings.max(theView.getRoot().heightProperty(),
-                                theView.getRoot().widthProperty())
-                        .divide(6)
-                        .add(-15);
+    private void initPlayer() {
+        player = new SequencePlayer(theModel.getGameSequence(),
+                Duration.seconds(2), Duration.seconds(1),
+                new TempoCurve(0.05, 3.0),
+                this::lightOn, this::lightOff);
+        player.setOnFinished(() -> {
+            theModel.endPlayback();
+            reactionStats.playbackFinished(System.nanoTime());
+        });
+    }
 
-        for (Rectangle r : theView.getLights()) {
-            r.widthProperty().bind(radiusBinding);
+    /**
+     * Lights a light of the sequence and starts its tone
+     *
+     * @param lightIndex the index of the light
+     */
+    private void lightOn(int lightIndex) {
+        // A press from the last round shows until the first flash
+        releasePressedLight();
+        theView.getUpdates().setLightState(lightIndex, PadImages.LIT);
+        if (toneEngine != null) {
+            toneEngine.play(lightIndex);
         }
+    }
 
-        // Bind the color of the light in the view to the model light color
-        for (int i = 0; i < theModel.getLights().size(); i++) {
-            simongame.Light lightModel = theModel.getLight(i);
-            Rectangle lightView = theView.getLight(i);
-
-            lightView.fillProperty().bind(lightModel.currentColorProperty());
-
-            // Set up an event if the user clicks on a light
-            lightView.onMouseClickedProperty().setValue(event -> {
-                lightModel.toggle();
-            });
+    /**
+     * Turns off a light and fades out its tone
+     *
+     * @param lightIndex the index of the light
+     */
+    private void lightOff(int lightIndex) {
+        theView.getUpdates().setLightState(lightIndex, PadImages.OFF);
+        if (toneEngine != null) {
+            toneEngine.stop(lightIndex);
         }
     }
 
@@ -137,84 +248,206 @@ public class SimonController {
      * Initializes the event handlers
      */
     private void initEventHandlers() {
-        // Event handlers for user clicks on lights
-        for (int i = 0; i < theModel.getLights().size(); i++) {
-            int finalI = i;
-            Rectangle lightView = theView.getLight(i);
-            lightView.setOnMouseClicked(event -> {
-                // Only process user input if the clicked light is the next in the sequence
-                if (currentIndexInSequence < theModel.getGameSequence().size() &&
-                        theModel.getGameSequence().get(currentIndexInSequence) == finalI) {
-                    applyClickEffects(lightView);
-                    processUserInput(finalI);
-                    // Highlight the light temporarily to indicate correct click
-                    theView.highlightLight(finalI);
-                    PauseTransition pause = new PauseTransition(Duration.seconds(0.5));
-                    pause.setOnFinished(e -> theView.unhighlightLight(finalI));
-                    pause.play();
-                } else {
-                    // Handle wrong click or out-of-sequence click
-                    handleGameOver();
-                }
-            });
+        // The one handler for clicks on lights, however the view draws them
+        theView.setOnLightClicked(lightIndex -> {
+            if (latencyMonitor != null) {
+                latencyMonitor.markClick();
+            }
+            queueInput(INPUT_PRESS, lightIndex);
+        });
+    }
+
+    /**
+     * Queues an input for the next pulse. Must be called on the JavaFX
+     * thread.
+     *
+     * @param kind  the kind of input
+     * @param value the light index of a press, otherwise 0
+     */
+    private void queueInput(int kind, int value) {
+        if (inputQueue.offer(kind, value, System.nanoTime())) {
+            inputPump.start();
+        }
+        // A full queue means a burst far faster than anyone clicks, so the
+        // extra inputs are dropped
+    }
+
+    /**
+     * Handles one input drained from the queue
+     *
+     * @param kind  the kind of input
+     * @param value the light index of a press, otherwise 0
+     * @param nanos the time the input arrived
+     */
+    private void handleInput(int kind, int value, long nanos) {
+        switch (kind) {
+            case INPUT_PRESS:
+                processUserInput(value, nanos);
+                break;
+            case INPUT_START:
+                // Start a new game, from the start button or the game-over overlay
+                theView.hideGameOverMessage();
+                startGame();
+                theView.getUpdates().setPlaying(true);
+                break;
+            case INPUT_QUIT:
+                theView.hideGameOverMessage();
+                handleGameQuit();
+                theView.getUpdates().setPlaying(false); // Update UI for ending the game
+                break;
+            default:
+                break;
         }
     }
 
+    /**
+     * Sets the monitor that times each click until its feedback is rendered
+     *
+     * @param latencyMonitor the monitor, or null to stop timing
+     */
+    public void setLatencyMonitor(LatencyMonitor latencyMonitor) {
+        this.latencyMonitor = latencyMonitor;
+    }
+
+    /**
+     * Sets the tone engine that sounds each light while it is lit
+     *
+     * @param toneEngine the tone engine, or null for silence
+     */
+    public void setToneEngine(ToneEngine toneEngine) {
+        this.toneEngine = toneEngine;
+    }
+
+    /**
+     * A getter method for the clock that times the sequence's playback
+     *
+     * @return the playback clock
+     */
+    public PlaybackClock getPlaybackClock() {
+        return player.getClock();
+    }
+
+    /**
+     * A getter method for the player's reaction times
+     *
+     * @return the reaction time statistics
+     */
+    public ReactionStats getReactionStats() {
+        return reactionStats;
+    }
+
     /**
      * Applies click effects to the light
      *
-     * @param light the {@link Rectangle} that represents the light
+     * @param lightIndex the index of the light
      */
-    private void applyClickEffects(Rectangle light) {
-        light.setCursor(Cursor.HAND);
-        light.setEffect(new DropShadow(10, Color.BLACK));
+    private void applyClickEffects(int lightIndex) {
+        if (theView.getLight(lightIndex) != null) {
+            theView.getLight(lightIndex).setCursor(Cursor.HAND);
+        }
+        theView.getUpdates().setLightState(lightIndex, PadImages.PRESSED);
+        if (toneEngine != null) {
+            toneEngine.play(lightIndex);
+        }
     }
 
     /**
-     * Removes click effects from the light
+     * Removes click effects from the light. A light the playback has lit
+     * since the press is left alone.
      *
-     * @param light the {@link Rectangle} that represents the light
+     * @param lightIndex the index of the light
      */
-    private void removeClickEffects(Rectangle light) {
-        light.setCursor(Cursor.DEFAULT);
-        light.setEffect(null);
+    private void removeClickEffects(int lightIndex) {
+        if (theView.getLight(lightIndex) != null) {
+            theView.getLight(lightIndex).setCursor(Cursor.DEFAULT);
+        }
+        if (theView.getUpdates().getLightState(lightIndex) == PadImages.PRESSED) {
+            lightOff(lightIndex);
+        }
     }
 
     /**
-     * Processes user input
+     * Clears the feedback of the last correct press, if it still shows
+     */
+    private void releasePressedLight() {
+        if (pressedLight >= 0) {
+            removeClickEffects(pressedLight);
+            pressedLight = -1;
+        }
+    }
+
+    /**
+     * Processes user input. The model validates the press and tells us
+     * what happened, so we don't keep a second copy of the user's progress.
      *
      * @param lightIndex the {@link Integer} that represents the index
      *                   of the light
+     * @param nanos      the time of the press
      */
-    private void processUserInput(int lightIndex) {
-        // Check if the user clicked the correct light
-        if (theModel.getGameSequence().get(currentIndexInSequence) == lightIndex) {
-            // Correct choice
-            currentIndexInSequence++;
-            if (currentIndexInSequence == theModel.getGameSequence().size()) {
-                // Sequence completed successfully, start next round
-                currentIndexInSequence = 0;
-                theModel.extendSequence(); // Method to add a new random light to the sequence
+    private void processUserInput(int lightIndex, long nanos) {
+        int position = theModel.getInputCursor();
+        int result = theModel.addUserInput(lightIndex);
+        if (result != SimonModel.INPUT_IGNORED) {
+            reactionStats.press(lightIndex, position, nanos);
+        }
+        switch (result) {
+            case SimonModel.INPUT_CORRECT:
+                showCorrectClick(lightIndex);
+                break;
+            case SimonModel.INPUT_ROUND_COMPLETE:
+                // Sequence completed successfully, the model has already added the next light
+                showCorrectClick(lightIndex);
                 displaySequence();
-            }
-        } else {
-            // Wrong choice
-            handleGameOver();
+                break;
+            case SimonModel.INPUT_WRONG:
+                // Handle wrong click or out-of-sequence click
+                handleGameOver();
+                break;
+            default:
+                // Not waiting for input, nothing to do
+                break;
         }
     }
 
+    /**
+     * Highlights the light temporarily to indicate a correct click
+     *
+     * @param lightIndex the {@link Integer} that represents the index
+     *                   of the light
+     */
+    private void showCorrectClick(int lightIndex) {
+        releasePressedLight();
+        applyClickEffects(lightIndex);
+        pressedLight = lightIndex;
+        if (latencyMonitor != null) {
+            latencyMonitor.markFeedback();
+        }
+        clickPause.playFromStart();
+    }
+
     /**
      * Handles game over
      */
     private void handleGameOver() {
-        // Reset the game state
-        theModel.startNewGame();
-        currentIndexInSequence = 0;
+        reactionStats.interrupt();
+        stopGameProcesses();
 
-        // Display a game-over message to the user
+        // Display a game-over message to the user, the next game starts from it
         theView.showGameOverMessage();
     }
 
+    /**
+     * Carries on a game the model resumed from a snapshot, playing its
+     * sequence from the start of the round
+     */
+    public void resumeGame() {
+        if (theModel.getState() == SimonModel.STATE_AWAIT_INPUT) {
+            theView.getUpdates().setPlaying(true);
+            theView.getUpdates().setScore(theModel.getScore());
+            displaySequence();
+        }
+    }
+
     /**
      * Starts the game
      */
@@ -227,49 +460,26 @@ public class SimonController {
      * Sets up the game controls
      */
     private void setupGameControls() {
-        this.theView.getBtnStartGame().setOnAction(event -> {
-            // Start a new game
-            this.theModel.startNewGame();
-            displaySequence();
-            this.theView.showStartGameUI();
-        });
+        // The buttons queue their inputs behind any presses already waiting
+        theView.getBtnStartGame().setOnAction(event -> queueInput(INPUT_START, 0));
+        theView.getBtnQuitGame().setOnAction(event -> queueInput(INPUT_QUIT, 0));
 
-        theView.getBtnQuitGame().setOnAction(event -> {
-            // Logic to handle game quit
-            handleGameQuit();
-            theView.showEndGameUI(); // Update UI for ending the game
-        });
+        // The game-over overlay starts the next game on the next pulse
+        theView.getBtnPlayAgain().setOnAction(event -> queueInput(INPUT_START, 0));
+        theView.getBtnOverlayQuit().setOnAction(event -> queueInput(INPUT_QUIT, 0));
     }
 
     /**
      * Displays the sequence
      */
     private void displaySequence() {
-        sequenceIndex = new AtomicInteger(0);
-
-        timeline = new Timeline(new KeyFrame(Duration.seconds(2), event -> {
-            int lightIndex = theModel.getGameSequence().get(sequenceIndex.getAndIncrement());
-            highlightLight(lightIndex);
-            if (sequenceIndex.get() == theModel.getGameSequence().size()) {
-                timeline.stop();
-            }
-        }));
-        timeline.setCycleCount(theModel.getGameSequence().size());
-        timeline.play();
-    }
-
-    /**
-     * Highlights the light
-     *
-     * @param lightIndex the {@link Integer} that represents the index
-     *                   of the light
-     */
-    private void highlightLight(int lightIndex) {
-        theView.highlightLight(lightIndex);
-
-        PauseTransition visiblePause = new PauseTransition(Duration.seconds(1));
-        visiblePause.setOnFinished(event -> theView.unhighlightLight(lightIndex));
-        visiblePause.play();
+        // The last press is cleared by the first flash instead, so the
+        // pause can't turn off a light the playback has lit
+        clickPause.stop();
+        // Presses during playback are ignored and aren't reactions to it
+        theModel.beginPlayback();
+        reactionStats.interrupt();
+        player.play();
     }
 
     /**
@@ -277,14 +487,18 @@ public class SimonController {
      */
     private void handleGameQuit() {
         stopGameProcesses();
+        theModel.abandonGame();
     }
 
     /**
      * Stops the game processes
      */
     private void stopGameProcesses() {
-        if (timeline != null) {
-            timeline.stop();
+        player.stop();
+        clickPause.stop();
+        releasePressedLight();
+        if (toneEngine != null) {
+            toneEngine.stopAll();
         }
     }
 }
\ No newline at end of file
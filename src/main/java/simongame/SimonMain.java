@@ -17,9 +17,23 @@ package simongame;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.StringJoiner;
 
+import simongame.audio.ToneEngine;
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+import simongame.engine.SplitMixRandom;
+import simongame.engine.journal.ReplayJournal;
+import simongame.engine.scores.HighScoreStore;
+import simongame.engine.snapshot.SnapshotStore;
 import simongame.model.SimonModel;
+import simongame.view.PadRendering;
 import simongame.view.SimonView;
 
 /**
@@ -27,6 +41,13 @@ import simongame.view.SimonView;
  */
 public class SimonMain extends Application {
 
+    /**
+     * The options the game understands, printed when one of them is bad
+     */
+    private static final String USAGE = "Usage: SimonMain [--seed=<number>] [--pads=<count>]"
+            + " [--generator=uniform|no-repeat|markov|adaptive] [--pad-rendering=images|effects|canvas]"
+            + " [--audio-buffer=<frames>] [--journal=<path>] [--startup-probe=exit]";
+
     /**
      * The {@link SimonModel} that represents the model of the Simon game
      * light
@@ -50,12 +71,45 @@ public class SimonMain extends Application {
      */
     private URL cssURL;
 
+    /**
+     * The {@link ReplayJournal} that records every game, or {@code null} if
+     * it couldn't be opened
+     */
+    private ReplayJournal journal;
+
+    /**
+     * The {@link HighScoreStore} that keeps the best scores, or {@code null}
+     * if it couldn't be opened
+     */
+    private HighScoreStore highScores;
+
+    /**
+     * The {@link SnapshotStore} that saves the game in progress
+     */
+    private SnapshotStore snapshots;
+
+    /**
+     * Was a saved game resumed at startup?
+     */
+    private boolean resumed;
+
+    /**
+     * The {@link LatencyMonitor} that measures how responsive the game is
+     */
+    private LatencyMonitor latencyMonitor;
+
+    /**
+     * The {@link ToneEngine} that sounds the lights
+     */
+    private ToneEngine toneEngine;
+
     /**
      * The main method that runs the Simon game application
      *
      * @param args the command line arguments
      */
     public static void main(String[] args) {
+        StartupProbe.markMain();
         launch(args);
     }
 
@@ -70,12 +124,47 @@ public class SimonMain extends Application {
 
         primaryStage.setTitle("Simon Says Game");
         primaryStage.setScene(scene);
+        probeStartup(scene);
         primaryStage.sizeToScene();
         primaryStage.show();
         externalCSS(scene);
 
         // Initialize the controller
         controller();
+        theController.setToneEngine(toneEngine);
+        if (resumed) {
+            // Play the resumed game's sequence so the player can carry on
+            theController.resumeGame();
+        }
+
+        // Measure the input latency, F3 shows the numbers
+        latencyMonitor = new LatencyMonitor(scene, theView.getLblDebug());
+        theController.setLatencyMonitor(latencyMonitor);
+        latencyMonitor.setReactionStats(theController.getReactionStats());
+        latencyMonitor.setPlaybackClock(theController.getPlaybackClock());
+        latencyMonitor.setView(theView);
+        try {
+            latencyMonitor.startDump(dataDirectory().resolve("latency.log"));
+        } catch (IOException e) {
+            System.err.println("Could not open the latency log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Times the start up to the scene's first pulse. Passing
+     * {@code --startup-probe=exit} quits right after it, for timing runs
+     * and for training the distribution's class-data-sharing archive.
+     *
+     * @param scene the scene of the game
+     */
+    private void probeStartup(Scene scene) {
+        Path log = null;
+        try {
+            log = dataDirectory().resolve("startup.log");
+        } catch (IOException e) {
+            System.err.println("Could not open the startup log: " + e.getMessage());
+        }
+        new StartupProbe(scene, log, "exit".equals(getParameters().getNamed().get("startup-probe")));
     }
 
     /**
@@ -103,14 +192,229 @@ public class SimonMain extends Application {
     }
 
     /**
-     * Initializes the model and view
+     * Initializes the model and view. Passing {@code --seed=<number>} makes
+     * every game of the session reproducible from that seed,
+     * {@code --pads=<count>} plays on a bigger board such as 9, 16 or 64
+     * pads, {@code --generator=no-repeat}, {@code markov} or
+     * {@code adaptive} picks the steps another way than uniformly, and
+     * {@code --pad-rendering=effects} or {@code --pad-rendering=canvas}
+     * draws the lights with live effects or on a single canvas instead of
+     * with pre-rendered images. The tones play through a line buffer of
+     * {@code --audio-buffer=<frames>} frames, 256 by default; a bigger
+     * buffer trades latency for fewer dropouts. Every game is
+     * recorded to {@code ~/.simon/replay.journal}, or to the file given by
+     * {@code --journal=<path>}.
      *
      * @throws Exception
      */
     @Override
     public void init() throws Exception {
         super.init();
-        this.theModel = new SimonModel();
-        this.theView = new SimonView(this.theModel);
+        // Check every option before anything is opened
+        long seed = seedOption();
+        int lightCount = intOption("pads", 4, 2);
+        SequenceGenerator generator = generatorOption(lightCount);
+        PadRendering rendering = renderingOption();
+        int bufferFrames = intOption("audio-buffer", ToneEngine.DEFAULT_BUFFER_FRAMES, 1);
+
+        this.theModel = new SimonModel(new SimonEngine(new SplitMixRandom(seed), lightCount, generator));
+        this.theView = new SimonView(this.theModel, rendering);
+        openJournal(getParameters().getNamed().get("journal"));
+        openHighScores();
+        openSnapshots();
+
+        // Synthesize the tones and open the sound device before the first frame
+        this.toneEngine = ToneEngine.open(lightCount, bufferFrames);
+    }
+
+    /**
+     * Reads the {@code --seed} option, exiting with a usage message if it
+     * isn't a number
+     *
+     * @return the seed of the session, random if the option isn't given
+     */
+    private long seedOption() {
+        String value = getParameters().getNamed().get("seed");
+        if (value == null) {
+            return SplitMixRandom.randomSeed();
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            badOption("--seed must be a whole number, not " + value);
+            return 0;
+        }
+    }
+
+    /**
+     * Reads a whole-number option, exiting with a usage message if it isn't
+     * a number or is too small
+     *
+     * @param name         the name of the option, without the dashes
+     * @param defaultValue the value if the option isn't given
+     * @param min          the smallest value allowed
+     * @return the value of the option
+     */
+    private int intOption(String name, int defaultValue, int min) {
+        String value = getParameters().getNamed().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            badOption("--" + name + " must be a whole number, not " + value);
+            return defaultValue;
+        }
+        if (number < min) {
+            badOption("--" + name + " must be at least " + min + ", not " + number);
+        }
+        return number;
+    }
+
+    /**
+     * Reads the {@code --generator} option, exiting with a usage message if
+     * it names no generator
+     *
+     * @param lightCount the number of pads
+     * @return the generator that picks the steps
+     */
+    private SequenceGenerator generatorOption(int lightCount) {
+        String value = getParameters().getNamed().get("generator");
+        try {
+            return SequenceGenerator.named(value != null ? value : "uniform", lightCount);
+        } catch (IllegalArgumentException e) {
+            badOption("--generator must be one of " + String.join(", ", SequenceGenerator.NAMES)
+                    + ", not " + value);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the {@code --pad-rendering} option, exiting with a usage message
+     * if it names no {@link PadRendering}
+     *
+     * @return the way the lights are drawn
+     */
+    private PadRendering renderingOption() {
+        String value = getParameters().getNamed().get("pad-rendering");
+        if (value == null) {
+            return PadRendering.IMAGES;
+        }
+        try {
+            return PadRendering.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            StringJoiner names = new StringJoiner(", ");
+            for (PadRendering rendering : PadRendering.values()) {
+                names.add(rendering.name().toLowerCase(Locale.ROOT));
+            }
+            badOption("--pad-rendering must be one of " + names + ", not " + value);
+            return PadRendering.IMAGES;
+        }
+    }
+
+    /**
+     * Prints what is wrong with an option and how to run the game, then
+     * exits before anything is opened
+     *
+     * @param message what is wrong with the option
+     */
+    private static void badOption(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Returns the directory the game keeps its files in, creating it if
+     * needed
+     *
+     * @return the directory
+     * @throws IOException if the directory can't be created
+     */
+    private static Path dataDirectory() throws IOException {
+        Path dir = Paths.get(System.getProperty("user.home"), ".simon");
+        Files.createDirectories(dir);
+        return dir;
+    }
+
+    /**
+     * Opens the high-score store from {@code ~/.simon/highscores.dat}. This
+     * runs before the stage is shown, so the personal best is ready for the
+     * first frame.
+     */
+    private void openHighScores() {
+        try {
+            this.highScores = new HighScoreStore(dataDirectory().resolve("highscores.dat"));
+            theModel.setHighScores(highScores);
+        } catch (IOException e) {
+            System.err.println("Could not open the high scores: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the snapshot of the game in progress from
+     * {@code ~/.simon/resume.snap} and resumes the game saved in it, if
+     * any, then keeps saving the game at the start of every round
+     */
+    private void openSnapshots() {
+        try {
+            this.snapshots = new SnapshotStore(dataDirectory().resolve("resume.snap"), theModel.getEngine());
+        } catch (IOException e) {
+            System.err.println("Could not open the saved game: " + e.getMessage());
+            return;
+        }
+        try {
+            resumed = snapshots.restore() >= 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not resume the saved game: " + e.getMessage());
+        }
+        theModel.getEngine().addListener(snapshots);
+    }
+
+    /**
+     * Opens the replay journal and starts recording the model's games. A
+     * journal that can't be opened only costs the recording, not the game.
+     *
+     * @param path the journal file, or {@code null} for the default one
+     */
+    private void openJournal(String path) {
+        try {
+            Path file = path != null ? Paths.get(path) : dataDirectory().resolve("replay.journal");
+            this.journal = new ReplayJournal(file, theModel.getEngine());
+            theModel.getEngine().addListener(journal);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not open the replay journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the application, writes the last latency numbers and closes
+     * the sound, the replay journal, high scores and saved game
+     *
+     * @throws Exception
+     */
+    @Override
+    public void stop() throws Exception {
+        if (latencyMonitor != null) {
+            latencyMonitor.stopDump();
+        }
+        if (toneEngine != null) {
+            toneEngine.close();
+        }
+        if (journal != null) {
+            theModel.getEngine().removeListener(journal);
+            journal.close();
+        }
+        if (highScores != null) {
+            theModel.getEngine().removeListener(highScores);
+            highScores.close();
+        }
+        if (snapshots != null) {
+            theModel.getEngine().removeListener(snapshots);
+            snapshots.close();
+        }
+        super.stop();
     }
 }
\ No newline at end of file
@@ -0,0 +1,351 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 5:30 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame
+ * Class: SimonSimulator
+ *
+ * Description: A headless Monte Carlo simulator for tuning difficulty
+ *
+ * ****************************************
+ */
+
+package simongame;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import simongame.engine.GameRandom;
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+import simongame.engine.SplitMixRandom;
+
+/**
+ * A main class that simulates millions of Simon games with a synthetic
+ * player and prints how far the games got as CSV. No UI is started.
+ * <p>
+ * The synthetic player recalls each step of a round of length {@code n}
+ * with probability {@code p * falloff^(n - 1)}, so longer sequences are
+ * harder to remember. Games are split across every core with fork/join.
+ * Each task plays its games on its own {@link SimonEngine} and random
+ * stream split from one master seed, so a run can be repeated exactly
+ * from its seed. Each task also fills its own histogram, and the
+ * histograms are added together as the tasks join, so no lock is shared
+ * between workers.
+ * <p>
+ * Run it with
+ * {@code ./gradlew run -PmainClass=simongame.SimonSimulator --args="--games=1000000 --p=0.98"}.
+ * The options are {@code --games}, {@code --p}, {@code --falloff},
+ * {@code --max-rounds}, {@code --seed}, {@code --threads},
+ * {@code --pads} (default 4) and {@code --generator} (default
+ * {@code uniform}, see {@link SequenceGenerator#named(String, int)}).
+ */
+public class SimonSimulator {
+
+    /**
+     * The tally of a batch of simulated games
+     */
+    static final class Result {
+
+        /**
+         * The number of games that reached each round, indexed by round
+         */
+        final long[] roundsReached;
+
+        /**
+         * The number of presses made in every game
+         */
+        long presses;
+
+        /**
+         * The sum of every final score
+         */
+        long scoreSum;
+
+        /**
+         * The sum of the square of every final score
+         */
+        double scoreSquareSum;
+
+        /**
+         * Constructs an empty result
+         *
+         * @param maxRounds the highest round a game can reach
+         */
+        Result(int maxRounds) {
+            this.roundsReached = new long[maxRounds + 1];
+        }
+
+        /**
+         * Adds another result to this one
+         *
+         * @param other the result to add
+         * @return this result
+         */
+        Result merge(Result other) {
+            for (int i = 0; i < roundsReached.length; i++) {
+                roundsReached[i] += other.roundsReached[i];
+            }
+            presses += other.presses;
+            scoreSum += other.scoreSum;
+            scoreSquareSum += other.scoreSquareSum;
+            return this;
+        }
+    }
+
+    /**
+     * A fork/join task that simulates a range of games
+     */
+    // Tasks only live inside one run's pool and are never serialized
+    @SuppressWarnings("serial")
+    static final class SimulationTask extends RecursiveTask<Result> {
+
+        /**
+         * The number of games to simulate
+         */
+        private final long games;
+
+        /**
+         * The number of games below which a task stops splitting
+         */
+        private final long threshold;
+
+        /**
+         * The random source for this task's games
+         */
+        private final GameRandom random;
+
+        /**
+         * The chance of recalling a step in the first round
+         */
+        private final double recall;
+
+        /**
+         * How much the chance of recalling a step drops every round
+         */
+        private final double falloff;
+
+        /**
+         * The round at which a game is stopped
+         */
+        private final int maxRounds;
+
+        /**
+         * The number of lights on the board
+         */
+        private final int lightCount;
+
+        /**
+         * The name of the generator each engine picks its steps with
+         */
+        private final String generator;
+
+        /**
+         * Constructs a task
+         *
+         * @param games     the number of games to simulate
+         * @param threshold the number of games below which a task stops splitting
+         * @param random    the random source for this task's games
+         * @param recall    the chance of recalling a step in the first round
+         * @param falloff   how much the chance of recalling a step drops every round
+         * @param maxRounds  the round at which a game is stopped
+         * @param lightCount the number of lights on the board
+         * @param generator  the name of the generator to pick steps with
+         */
+        SimulationTask(long games, long threshold, GameRandom random,
+                       double recall, double falloff, int maxRounds, int lightCount, String generator) {
+            this.games = games;
+            this.threshold = threshold;
+            this.random = random;
+            this.recall = recall;
+            this.falloff = falloff;
+            this.maxRounds = maxRounds;
+            this.lightCount = lightCount;
+            this.generator = generator;
+        }
+
+        /**
+         * Splits the games in half until they are small enough, then plays them
+         *
+         * @return the tally of the games
+         */
+        @Override
+        protected Result compute() {
+            if (games <= threshold) {
+                return simulate();
+            }
+            long half = games / 2;
+            // Split the random source before forking so the results only depend on the seed
+            SimulationTask left = new SimulationTask(half, threshold, random.split(),
+                    recall, falloff, maxRounds, lightCount, generator);
+            SimulationTask right = new SimulationTask(games - half, threshold, random.split(),
+                    recall, falloff, maxRounds, lightCount, generator);
+            left.fork();
+            Result result = right.compute();
+            return result.merge(left.join());
+        }
+
+        /**
+         * Plays every game of this task on a single engine
+         *
+         * @return the tally of the games
+         */
+        private Result simulate() {
+            Result result = new Result(maxRounds);
+            // The engine draws its game seeds from a stream of its own, and
+            // has a generator of its own since some learn from the presses
+            SimonEngine engine = new SimonEngine(random.split(), lightCount,
+                    SequenceGenerator.named(generator, lightCount));
+
+            for (long game = 0; game < games; game++) {
+                engine.startNewGame();
+                int round = 1;
+                double chance = recall;
+                while (round < maxRounds) {
+                    int expected = engine.getGameSequence().get(engine.getInputCursor());
+                    int press = expected;
+                    if (random.nextDouble() >= chance) {
+                        // Forgot the step, press any other light
+                        press = (expected + 1 + random.nextInt(lightCount - 1)) % lightCount;
+                    }
+                    result.presses++;
+
+                    int outcome = engine.addUserInput(press);
+                    if (outcome == SimonEngine.INPUT_WRONG) {
+                        break;
+                    } else if (outcome == SimonEngine.INPUT_ROUND_COMPLETE) {
+                        round++;
+                        chance *= falloff;
+                    }
+                }
+
+                int score = engine.getScore();
+                result.roundsReached[round]++;
+                result.scoreSum += score;
+                result.scoreSquareSum += (double) score * score;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The main method that runs the simulation and prints the results
+     *
+     * @param args the command line options
+     */
+    public static void main(String[] args) {
+        long games = 1_000_000;
+        double recall = 0.98;
+        double falloff = 0.995;
+        int maxRounds = 1000;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int pads = 4;
+        String generator = "uniform";
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --option=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "--games":
+                    games = Long.parseLong(option[1]);
+                    break;
+                case "--p":
+                    recall = Double.parseDouble(option[1]);
+                    break;
+                case "--falloff":
+                    falloff = Double.parseDouble(option[1]);
+                    break;
+                case "--max-rounds":
+                    maxRounds = Integer.parseInt(option[1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(option[1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(option[1]);
+                    break;
+                case "--pads":
+                    pads = Integer.parseInt(option[1]);
+                    break;
+                case "--generator":
+                    generator = option[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        if (games < 1) {
+            throw new IllegalArgumentException("--games must be at least 1, not " + games);
+        }
+        if (!(recall >= 0 && recall <= 1)) {
+            throw new IllegalArgumentException("--p must be between 0 and 1, not " + recall);
+        }
+        if (!(falloff >= 0 && falloff <= 1)) {
+            throw new IllegalArgumentException("--falloff must be between 0 and 1, not " + falloff);
+        }
+        if (maxRounds < 1 || maxRounds == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("--max-rounds must be between 1 and "
+                    + (Integer.MAX_VALUE - 1) + ", not " + maxRounds);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be at least 1, not " + threads);
+        }
+        if (pads < 2) {
+            throw new IllegalArgumentException("--pads must be at least 2, not " + pads);
+        }
+        // Fails on an unknown name before any task starts
+        SequenceGenerator.named(generator, pads);
+
+        // Enough tasks for busy cores to steal from each other. The split does
+        // not depend on the thread count, so the results only depend on the seed.
+        long threshold = Math.max(1, games / 256);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Result result = pool.invoke(new SimulationTask(games, threshold, new SplitMixRandom(seed),
+                recall, falloff, maxRounds, pads, generator));
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        printCsv(result, games);
+
+        double mean = (double) result.scoreSum / games;
+        double stddev = Math.sqrt(Math.max(0, result.scoreSquareSum / games - mean * mean));
+        System.err.printf(Locale.ROOT,
+                "games=%d seed=%d threads=%d p=%.4f falloff=%.4f score_mean=%.3f score_stddev=%.3f "
+                        + "presses=%d elapsed_ms=%d presses_per_sec=%.0f%n",
+                games, seed, threads, recall, falloff, mean, stddev, result.presses,
+                elapsed / 1_000_000, result.presses / (elapsed / 1e9));
+    }
+
+    /**
+     * Prints the round-reached histogram and the score distribution as CSV.
+     * A game that reached round {@code n} finished with a score of {@code n - 1}.
+     *
+     * @param result the tally of every game
+     * @param games  the number of games simulated
+     */
+    private static void printCsv(Result result, long games) {
+        StringBuilder csv = new StringBuilder("round_reached,score,games,fraction,cumulative_fraction\n");
+        long cumulative = 0;
+        for (int round = 1; round < result.roundsReached.length; round++) {
+            long count = result.roundsReached[round];
+            if (count == 0) {
+                continue;
+            }
+            cumulative += count;
+            csv.append(round).append(',')
+                    .append(round - 1).append(',')
+                    .append(count).append(',')
+                    .append(String.format(Locale.ROOT, "%.6f", (double) count / games)).append(',')
+                    .append(String.format(Locale.ROOT, "%.6f", (double) cumulative / games)).append('\n');
+        }
+        System.out.print(csv);
+    }
+}
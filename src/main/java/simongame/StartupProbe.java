@@ -0,0 +1,149 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 4:10 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame
+ * Class: StartupProbe
+ *
+ * Description: Measures the time from launch to the first pulse
+ *
+ * ****************************************
+ */
+
+package simongame;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Measures how long the game takes to start: from the process launch to
+ * {@code main}, and from {@code main} to the end of the layout pass of the
+ * first pulse of the game's scene, which is rendered straight after. The
+ * numbers are printed and appended to a log, one line per launch, along
+ * with whether a class-data-sharing archive was in use, so cold and warm
+ * starts of each build can be compared over time.
+ * <p>
+ * A probe that exits after the first pulse is also how the distribution's
+ * class-data-sharing archive is trained: the training run loads exactly
+ * the classes a real start loads, then quits.
+ */
+public class StartupProbe {
+
+    /**
+     * When {@code main} was entered, from {@link System#nanoTime()}
+     */
+    private static long mainNanos;
+
+    /**
+     * When {@code main} was entered, in milliseconds since the epoch
+     */
+    private static long mainMillis;
+
+    /**
+     * The scene being watched
+     */
+    private final Scene scene;
+
+    /**
+     * The file to append the numbers to, or null to only print them
+     */
+    private final Path log;
+
+    /**
+     * Does the application exit after the first pulse?
+     */
+    private final boolean exitAfter;
+
+    /**
+     * The listener that waits for the first pulse
+     */
+    private final Runnable firstPulse = this::firstPulse;
+
+    /**
+     * Marks the start of {@code main}. Call this first thing in main.
+     */
+    public static void markMain() {
+        mainNanos = System.nanoTime();
+        mainMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Starts waiting for the first pulse of a scene
+     *
+     * @param scene     the scene of the game, before its first pulse
+     * @param log       the file to append the numbers to, or null
+     * @param exitAfter true to exit the application after the first pulse
+     */
+    public StartupProbe(Scene scene, Path log, boolean exitAfter) {
+        this.scene = scene;
+        this.log = log;
+        this.exitAfter = exitAfter;
+        scene.addPostLayoutPulseListener(firstPulse);
+    }
+
+    /**
+     * Records the first pulse and stops listening
+     */
+    private void firstPulse() {
+        long pulseNanos = System.nanoTime();
+        scene.removePostLayoutPulseListener(firstPulse);
+        if (mainNanos == 0) {
+            // Launched without going through main, nothing to time from
+            return;
+        }
+
+        long launchMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli).orElse(mainMillis);
+        boolean cds = ProcessHandle.current().info().arguments()
+                .map(args -> {
+                    for (String arg : args) {
+                        if (arg.startsWith("-XX:SharedArchiveFile")) return true;
+                    }
+                    return false;
+                }).orElse(false);
+        String line = String.format(Locale.ROOT, "%s launch-to-main=%dms main-to-first-pulse=%.1fms cds=%s",
+                Instant.ofEpochMilli(mainMillis), mainMillis - launchMillis,
+                (pulseNanos - mainNanos) / 1e6, cds ? "on" : "off");
+        System.err.println("Startup: " + line);
+
+        if (log != null) {
+            // Off the JavaFX thread, and before exiting if that was asked for
+            Thread writer = new Thread(() -> append(line), "simon-startup-log");
+            writer.start();
+            if (exitAfter) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (exitAfter) {
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Appends a line to the log
+     *
+     * @param line the line
+     */
+    private void append(String line) {
+        try {
+            Files.writeString(log, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Could not write the startup log: " + e.getMessage());
+        }
+    }
+}
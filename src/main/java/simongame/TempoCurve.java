@@ -0,0 +1,62 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 1:40 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame
+ * Class: TempoCurve
+ *
+ * Description: A curve that speeds up playback as the rounds go by
+ *
+ * ****************************************
+ */
+
+package simongame;
+
+/**
+ * A tempo curve for sequence playback. The playback rate starts at 1 and
+ * grows linearly with the round number until it reaches a maximum.
+ */
+public class TempoCurve {
+
+    /**
+     * A tempo curve that never speeds up
+     */
+    public static final TempoCurve CONSTANT = new TempoCurve(0, 1);
+
+    /**
+     * How much the rate grows every round
+     */
+    private final double speedUpPerRound;
+
+    /**
+     * The fastest rate the curve will reach
+     */
+    private final double maxRate;
+
+    /**
+     * Constructs a {@link TempoCurve}
+     *
+     * @param speedUpPerRound how much the rate grows every round, e.g. 0.05
+     *                        plays each round 5% faster than the last
+     * @param maxRate         the fastest rate the curve will reach
+     */
+    public TempoCurve(double speedUpPerRound, double maxRate) {
+        if (speedUpPerRound < 0 || maxRate < 1) {
+            throw new IllegalArgumentException("Tempo must not slow down below 1");
+        }
+        this.speedUpPerRound = speedUpPerRound;
+        this.maxRate = maxRate;
+    }
+
+    /**
+     * Returns the playback rate for the given round
+     *
+     * @param round the round number, starting at 1
+     * @return the playback rate, where 1 is normal speed
+     */
+    public double rateForRound(int round) {
+        return Math.min(maxRate, 1 + speedUpPerRound * Math.max(0, round - 1));
+    }
+}
@@ -0,0 +1,38 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 3:00 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.audio
+ * Class: AudioSink
+ *
+ * Description: Where the mixed tones are written
+ *
+ * ****************************************
+ */
+
+package simongame.audio;
+
+/**
+ * Where a {@link ToneEngine} writes its mixed sound, as 16-bit signed
+ * little-endian mono PCM at {@link ToneEngine#SAMPLE_RATE}. Writing blocks
+ * for about as long as the sound takes to play, which is what paces the
+ * mixer.
+ */
+public interface AudioSink extends AutoCloseable {
+
+    /**
+     * Writes sound, blocking until there is room for it
+     *
+     * @param buffer the PCM bytes
+     * @param length the number of bytes to write from the start of the buffer
+     */
+    void write(byte[] buffer, int length);
+
+    /**
+     * Stops the sound and releases the device
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,78 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 3:05 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.audio
+ * Class: LineSink
+ *
+ * Description: An audio sink that plays through the sound card
+ *
+ * ****************************************
+ */
+
+package simongame.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Plays sound through a {@link SourceDataLine} that is opened and started
+ * once, up front, so starting a tone never waits for the device. The line's
+ * buffer is kept small because everything in it has to play before a new
+ * tone is heard.
+ */
+public class LineSink implements AudioSink {
+
+    /**
+     * The line the sound is played through
+     */
+    private final SourceDataLine line;
+
+    /**
+     * Opens and starts the default line
+     *
+     * @param format       the format of the sound
+     * @param bufferFrames the size of the line's buffer in frames
+     * @throws LineUnavailableException if there is no sound device or it is busy
+     */
+    public LineSink(AudioFormat format, int bufferFrames) throws LineUnavailableException {
+        this.line = AudioSystem.getSourceDataLine(format);
+        line.open(format, bufferFrames * format.getFrameSize());
+        line.start();
+    }
+
+    /**
+     * A getter method for the size of the line's buffer, which the device
+     * may have made bigger than asked for
+     *
+     * @return the size in bytes
+     */
+    public int getBufferSize() {
+        return line.getBufferSize();
+    }
+
+    /**
+     * Writes sound to the line, blocking until the line's buffer has room
+     *
+     * @param buffer the PCM bytes
+     * @param length the number of bytes to write from the start of the buffer
+     */
+    @Override
+    public void write(byte[] buffer, int length) {
+        line.write(buffer, 0, length);
+    }
+
+    /**
+     * Stops the line, throws away what it hasn't played and closes it
+     */
+    @Override
+    public void close() {
+        line.stop();
+        line.flush();
+        line.close();
+    }
+}
@@ -0,0 +1,124 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 3:10 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.audio
+ * Class: NullSink
+ *
+ * Description: An audio sink that plays nothing and counts what it gets
+ *
+ * ****************************************
+ */
+
+package simongame.audio;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sink for machines without a sound device. It throws the sound away
+ * but keeps count of it, so a test can check what the mixer produced.
+ * A real-time sink sleeps for as long as the sound would have played, so
+ * the mixer runs at the same pace as with a sound card; otherwise writes
+ * return straight away.
+ */
+public class NullSink implements AudioSink {
+
+    /**
+     * Does each write take as long as the sound would have played?
+     */
+    private final boolean realTime;
+
+    /**
+     * When the sound written so far would have finished playing
+     */
+    private long deadlineNanos;
+
+    /**
+     * The number of bytes written
+     */
+    private volatile long bytesWritten;
+
+    /**
+     * The loudest sample written, as an absolute value
+     */
+    private volatile int peak;
+
+    /**
+     * The loudest sample of the last write, as an absolute value
+     */
+    private volatile int lastPeak;
+
+    /**
+     * Constructs a sink
+     *
+     * @param realTime true to make each write take as long as its sound
+     */
+    public NullSink(boolean realTime) {
+        this.realTime = realTime;
+    }
+
+    /**
+     * Counts the sound and its loudest sample, then, for a real-time sink,
+     * sleeps until the sound would have finished playing
+     *
+     * @param buffer the PCM bytes
+     * @param length the number of bytes to write from the start of the buffer
+     */
+    @Override
+    public void write(byte[] buffer, int length) {
+        int loudest = 0;
+        for (int i = 0; i + 1 < length; i += 2) {
+            int sample = (short) ((buffer[i] & 0xFF) | (buffer[i + 1] << 8));
+            loudest = Math.max(loudest, Math.abs(sample));
+        }
+        lastPeak = loudest;
+        peak = Math.max(peak, loudest);
+        bytesWritten += length;
+
+        if (realTime) {
+            long now = System.nanoTime();
+            if (deadlineNanos < now) {
+                deadlineNanos = now;
+            }
+            deadlineNanos += length / 2 * 1_000_000_000L / ToneEngine.SAMPLE_RATE;
+            LockSupport.parkNanos(deadlineNanos - now);
+        }
+    }
+
+    /**
+     * A getter method for the number of bytes written
+     *
+     * @return the number of bytes
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * A getter method for the loudest sample written
+     *
+     * @return the absolute value of the loudest sample, 0 if all was silence
+     */
+    public int getPeak() {
+        return peak;
+    }
+
+    /**
+     * A getter method for the loudest sample of the last write
+     *
+     * @return the absolute value of the loudest sample, 0 if the last write
+     *         was silence
+     */
+    public int getLastPeak() {
+        return lastPeak;
+    }
+
+    /**
+     * Does nothing, there is no device to release
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,456 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 3:20 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.audio
+ * Class: ToneEngine
+ *
+ * Description: Synthesizes and mixes the tones of the pads
+ *
+ * ****************************************
+ */
+
+package simongame.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import simongame.engine.InputQueue;
+import simongame.model.LightColorEnum;
+
+/**
+ * Plays a tone for each pad. The classic board uses the pitches of the
+ * {@link LightColorEnum} colors; bigger boards cycle through a pentatonic
+ * scale. Every tone is synthesized once, when the engine is built, into a
+ * short PCM loop that holds a whole number of cycles, so it can sound for
+ * as long as its pad is lit.
+ * <p>
+ * A mixer thread sums the sounding tones a small chunk at a time and
+ * writes them to an {@link AudioSink}, normally a {@link LineSink} opened
+ * up front. {@link #play(int)} and {@link #stop(int)} only put a command on
+ * an {@link InputQueue}, which the mixer drains before each chunk, so a
+ * tone starts within about one and a half line buffers of being asked
+ * for. Tones fade in and out over a few milliseconds so they don't click,
+ * and up to {@value #MAX_VOICES} of them mix at once. Neither the commands
+ * nor the mixing allocate anything.
+ */
+public class ToneEngine implements AutoCloseable {
+
+    /**
+     * The sample rate of the sound, in frames per second
+     */
+    public static final int SAMPLE_RATE = 44100;
+
+    /**
+     * The format of the sound: 16-bit signed little-endian mono
+     */
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+
+    /**
+     * The default size of the line's buffer, about 6 milliseconds
+     */
+    public static final int DEFAULT_BUFFER_FRAMES = 256;
+
+    /**
+     * The most tones that sound at once; a new tone beyond that replaces
+     * the oldest
+     */
+    private static final int MAX_VOICES = 8;
+
+    /**
+     * The length of a tone's fade-in, 5 milliseconds
+     */
+    private static final int ATTACK_FRAMES = SAMPLE_RATE / 200;
+
+    /**
+     * The length of a tone's fade-out, 20 milliseconds
+     */
+    private static final int RELEASE_FRAMES = SAMPLE_RATE / 50;
+
+    /**
+     * About how long each tone's loop lasts, in seconds
+     */
+    private static final double LOOP_SECONDS = 0.1;
+
+    /**
+     * The peak of a single tone, so five can mix without clipping; the mix
+     * of more is clamped
+     */
+    private static final double AMPLITUDE = 0.2 * Short.MAX_VALUE;
+
+    /**
+     * The semitones of the pentatonic scale bigger boards use
+     */
+    private static final int[] SCALE = {0, 2, 4, 7, 9};
+
+    /**
+     * The lowest pitch of the scale, G3 in hertz
+     */
+    private static final double SCALE_BASE_HZ = 196;
+
+    /**
+     * The number of octaves of the scale before it repeats
+     */
+    private static final int SCALE_OCTAVES = 4;
+
+    /**
+     * The command that starts a pad's tone
+     */
+    private static final int PLAY = 0;
+
+    /**
+     * The command that fades out a pad's tone
+     */
+    private static final int STOP = 1;
+
+    /**
+     * The command that fades out every tone
+     */
+    private static final int STOP_ALL = 2;
+
+    /**
+     * The synthesized loop of each distinct tone
+     */
+    private final short[][] tones;
+
+    /**
+     * The number of pads
+     */
+    private final int lightCount;
+
+    /**
+     * The pad of each voice, or -1 if the voice is free
+     */
+    private final int[] voicePad = new int[MAX_VOICES];
+
+    /**
+     * The position of each voice in its tone's loop
+     */
+    private final int[] voicePosition = new int[MAX_VOICES];
+
+    /**
+     * The number of frames each voice has been fading in, up to the
+     * length of the fade
+     */
+    private final int[] voiceAttack = new int[MAX_VOICES];
+
+    /**
+     * The number of frames each voice has been fading out, or -1 if it
+     * isn't
+     */
+    private final int[] voiceRelease = new int[MAX_VOICES];
+
+    /**
+     * When each voice started, to find the oldest
+     */
+    private final long[] voiceStarted = new long[MAX_VOICES];
+
+    /**
+     * The commands waiting for the mixer
+     */
+    private final InputQueue commands = new InputQueue(64);
+
+    /**
+     * Set when a stop didn't fit on the full command queue, so the mixer
+     * fades out every tone rather than leave one sounding
+     */
+    private final AtomicBoolean stopAllRequested = new AtomicBoolean();
+
+    /**
+     * Carries out each drained command
+     */
+    private final InputQueue.Handler commandHandler = this::command;
+
+    /**
+     * The sum of the voices for one chunk
+     */
+    private final int[] mix;
+
+    /**
+     * One chunk of PCM bytes for the sink
+     */
+    private final byte[] chunk;
+
+    /**
+     * Where the sound goes
+     */
+    private final AudioSink sink;
+
+    /**
+     * The thread that mixes and writes the sound
+     */
+    private final Thread mixer;
+
+    /**
+     * Is the mixer running?
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a tone engine that plays through a sink
+     *
+     * @param lightCount   the number of pads
+     * @param sink         where the sound goes
+     * @param bufferFrames the size of the line's buffer in frames; the
+     *                     mixer writes half of it at a time, at least 1
+     */
+    public ToneEngine(int lightCount, AudioSink sink, int bufferFrames) {
+        if (bufferFrames < 1) {
+            throw new IllegalArgumentException("The line buffer needs at least 1 frame, not " + bufferFrames);
+        }
+        this.lightCount = lightCount;
+        this.sink = sink;
+
+        double[] pitches = pitches(lightCount);
+        this.tones = new short[pitches.length][];
+        for (int i = 0; i < pitches.length; i++) {
+            tones[i] = synthesize(pitches[i]);
+        }
+
+        int chunkFrames = Math.max(32, bufferFrames / 2);
+        this.mix = new int[chunkFrames];
+        this.chunk = new byte[chunkFrames * FORMAT.getFrameSize()];
+        Arrays.fill(voicePad, -1);
+        Arrays.fill(voiceRelease, -1);
+
+        this.mixer = new Thread(this::run, "simon-tones");
+        mixer.setDaemon(true);
+        mixer.setPriority(Thread.MAX_PRIORITY);
+        mixer.start();
+    }
+
+    /**
+     * Opens a tone engine on the default sound device, or on a
+     * {@link NullSink} if there is none
+     *
+     * @param lightCount   the number of pads
+     * @param bufferFrames the size of the line's buffer in frames, at least 1
+     * @return the tone engine
+     */
+    public static ToneEngine open(int lightCount, int bufferFrames) {
+        if (bufferFrames < 1) {
+            throw new IllegalArgumentException("The line buffer needs at least 1 frame, not " + bufferFrames);
+        }
+        AudioSink sink;
+        try {
+            sink = new LineSink(FORMAT, bufferFrames);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("No sound device, playing silently: " + e.getMessage());
+            sink = new NullSink(true);
+        }
+        return new ToneEngine(lightCount, sink, bufferFrames);
+    }
+
+    /**
+     * Returns the pitch of each distinct tone for a board
+     *
+     * @param lightCount the number of pads
+     * @return the pitches in hertz; pad i plays tone {@code i % length}
+     */
+    static double[] pitches(int lightCount) {
+        LightColorEnum[] colors = LightColorEnum.values();
+        if (lightCount == colors.length) {
+            double[] pitches = new double[colors.length];
+            for (int i = 0; i < colors.length; i++) {
+                pitches[i] = colors[i].getToneHz();
+            }
+            return pitches;
+        }
+        double[] pitches = new double[Math.min(lightCount, SCALE.length * SCALE_OCTAVES)];
+        for (int i = 0; i < pitches.length; i++) {
+            int semitones = 12 * (i / SCALE.length) + SCALE[i % SCALE.length];
+            pitches[i] = SCALE_BASE_HZ * Math.pow(2, semitones / 12.0);
+        }
+        return pitches;
+    }
+
+    /**
+     * Synthesizes the loop of a tone: a soft square wave, the first three
+     * odd harmonics, over a whole number of cycles so the loop is seamless.
+     * The pitch moves by a small fraction of a percent to fit.
+     *
+     * @param hz the pitch in hertz
+     * @return the loop
+     */
+    static short[] synthesize(double hz) {
+        long cycles = Math.max(1, Math.round(hz * LOOP_SECONDS));
+        int length = (int) Math.round(cycles * SAMPLE_RATE / hz);
+        double[] wave = new double[length];
+        double peak = 0;
+        for (int i = 0; i < length; i++) {
+            double phase = 2 * Math.PI * cycles * i / length;
+            wave[i] = Math.sin(phase) + Math.sin(3 * phase) / 6 + Math.sin(5 * phase) / 15;
+            peak = Math.max(peak, Math.abs(wave[i]));
+        }
+        short[] loop = new short[length];
+        for (int i = 0; i < length; i++) {
+            loop[i] = (short) Math.round(wave[i] / peak * AMPLITUDE);
+        }
+        return loop;
+    }
+
+    /**
+     * Starts a pad's tone. Safe to call from any thread. If the command
+     * queue is full the tone is skipped.
+     *
+     * @param lightIndex the pad
+     */
+    public void play(int lightIndex) {
+        commands.offer(PLAY, lightIndex, System.nanoTime());
+    }
+
+    /**
+     * Fades out a pad's tone. Safe to call from any thread. If the command
+     * queue is full every tone is faded out instead.
+     *
+     * @param lightIndex the pad
+     */
+    public void stop(int lightIndex) {
+        if (!commands.offer(STOP, lightIndex, System.nanoTime())) {
+            stopAllRequested.set(true);
+        }
+    }
+
+    /**
+     * Fades out every tone. Safe to call from any thread.
+     */
+    public void stopAll() {
+        if (!commands.offer(STOP_ALL, 0, System.nanoTime())) {
+            stopAllRequested.set(true);
+        }
+    }
+
+    /**
+     * Mixes and writes chunks until closed. Runs on the mixer thread.
+     */
+    private void run() {
+        while (running) {
+            // Take the flag before draining, so the commands queued ahead
+            // of a dropped stop are carried out before it
+            boolean stopAll = stopAllRequested.getAndSet(false);
+            commands.drain(commandHandler, Integer.MAX_VALUE);
+            if (stopAll) {
+                command(STOP_ALL, 0, 0);
+            }
+            mixChunk();
+            sink.write(chunk, chunk.length);
+        }
+    }
+
+    /**
+     * Carries out a command. Runs on the mixer thread.
+     *
+     * @param kind       {@link #PLAY}, {@link #STOP} or {@link #STOP_ALL}
+     * @param lightIndex the pad
+     * @param nanos      when the command was given
+     */
+    private void command(int kind, int lightIndex, long nanos) {
+        if (kind == STOP_ALL) {
+            for (int v = 0; v < MAX_VOICES; v++) {
+                release(v);
+            }
+            return;
+        }
+        if (lightIndex < 0 || lightIndex >= lightCount) {
+            return;
+        }
+        if (kind == STOP) {
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (voicePad[v] == lightIndex) {
+                    release(v);
+                }
+            }
+            return;
+        }
+
+        // Take a free voice, or else the oldest
+        int voice = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voicePad[v] < 0) {
+                voice = v;
+                break;
+            }
+            if (voiceStarted[v] < voiceStarted[voice]) {
+                voice = v;
+            }
+        }
+        voicePad[voice] = lightIndex;
+        voicePosition[voice] = 0;
+        voiceAttack[voice] = 0;
+        voiceRelease[voice] = -1;
+        voiceStarted[voice] = nanos;
+    }
+
+    /**
+     * Starts fading out a voice, unless it is free or already fading
+     *
+     * @param voice the voice
+     */
+    private void release(int voice) {
+        if (voicePad[voice] >= 0 && voiceRelease[voice] < 0) {
+            voiceRelease[voice] = 0;
+        }
+    }
+
+    /**
+     * Sums the sounding voices into the chunk
+     */
+    private void mixChunk() {
+        int frames = mix.length;
+        Arrays.fill(mix, 0);
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voicePad[v] < 0) {
+                continue;
+            }
+            short[] tone = tones[voicePad[v] % tones.length];
+            int position = voicePosition[v];
+            int attack = voiceAttack[v];
+            int release = voiceRelease[v];
+            for (int f = 0; f < frames; f++) {
+                int sample = tone[position];
+                if (attack < ATTACK_FRAMES) {
+                    sample = sample * attack++ / ATTACK_FRAMES;
+                }
+                if (release >= 0) {
+                    if (release >= RELEASE_FRAMES) {
+                        voicePad[v] = -1;
+                        break;
+                    }
+                    sample = sample * (RELEASE_FRAMES - release++) / RELEASE_FRAMES;
+                }
+                mix[f] += sample;
+                if (++position == tone.length) {
+                    position = 0;
+                }
+            }
+            voicePosition[v] = position;
+            voiceAttack[v] = attack;
+            voiceRelease[v] = release;
+        }
+
+        for (int f = 0; f < frames; f++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[f]));
+            chunk[2 * f] = (byte) sample;
+            chunk[2 * f + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Stops the mixer and closes the sink
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            mixer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+    }
+}
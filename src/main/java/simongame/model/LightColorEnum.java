@@ -16,16 +16,29 @@ package simongame.model;
 
 import javafx.scene.paint.Color;
 
+import simongame.Light;
+import simongame.engine.PadColor;
+
 /**
  * A simple abstraction for a basic light that can turn on and off.
  * Our light will also have a color which the class will manage
  * to simulate darkening
  */
 public enum LightColorEnum {
-    RED(Color.RED),
-    YELLOW(Color.YELLOW),
-    GREEN(Color.GREEN),
-    BLUE(Color.BLUE);
+    RED(PadColor.RED, 310),
+    YELLOW(PadColor.YELLOW, 252),
+    GREEN(PadColor.GREEN, 415),
+    BLUE(PadColor.BLUE, 209);
+
+    /**
+     * The engine pad color this light color mirrors
+     */
+    private PadColor padColor;
+
+    /**
+     * The pitch of the light's tone in hertz, as on the original game
+     */
+    private double toneHz;
 
     /**
      * The color of the light
@@ -35,10 +48,22 @@ public enum LightColorEnum {
     /**
      * Constructor for the light color enum
      *
-     * @param color the color of the light
+     * @param padColor the engine pad color of the light
+     * @param toneHz   the pitch of the light's tone in hertz
      */
-    private LightColorEnum(Color color) {
-        this.color = color;
+    private LightColorEnum(PadColor padColor, double toneHz) {
+        this.padColor = padColor;
+        this.toneHz = toneHz;
+        this.color = Light.toColor(padColor.getArgb());
+    }
+
+    /**
+     * Get the engine pad color of the light
+     *
+     * @return the engine pad color of the light
+     */
+    public PadColor getPadColor() {
+        return padColor;
     }
 
     /**
@@ -49,4 +74,13 @@ public enum LightColorEnum {
     public Color getColor() {
         return color;
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the pitch of the light's tone
+     *
+     * @return the pitch in hertz
+     */
+    public double getToneHz() {
+        return toneHz;
+    }
+}
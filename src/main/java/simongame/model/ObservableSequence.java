@@ -0,0 +1,126 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 10:20 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.model
+ * Class: ObservableSequence
+ *
+ * Description: A read-only observable view of a sequence buffer
+ *
+ * ****************************************
+ */
+
+package simongame.model;
+
+import java.util.AbstractList;
+
+import javafx.collections.ObservableListBase;
+
+import simongame.engine.SequenceBuffer;
+
+/**
+ * A read-only {@link javafx.collections.ObservableList} view of a
+ * {@link SequenceBuffer}. The view is only created when the UI asks for
+ * one, so the buffer does not pay for change events otherwise.
+ */
+public class ObservableSequence extends ObservableListBase<Integer> implements SequenceBuffer.Listener {
+
+    /**
+     * The buffer this view reads from
+     */
+    private final SequenceBuffer buffer;
+
+    /**
+     * Constructs a view over the given buffer
+     *
+     * @param buffer the {@link SequenceBuffer} to observe
+     */
+    ObservableSequence(SequenceBuffer buffer) {
+        this.buffer = buffer;
+        buffer.setListener(this);
+    }
+
+    /**
+     * Returns the light index at the given step
+     *
+     * @param index the step to read
+     * @return the light index at that step
+     */
+    @Override
+    public Integer get(int index) {
+        // Light indices are small, so this always hits the Integer cache
+        return buffer.get(index);
+    }
+
+    /**
+     * A getter method for the number of steps
+     *
+     * @return the number of steps
+     */
+    @Override
+    public int size() {
+        return buffer.size();
+    }
+
+    /**
+     * Fires an add change for the new step
+     *
+     * @param index the index of the new step
+     */
+    @Override
+    public void stepAdded(int index) {
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    /**
+     * Fires a remove change for every step that was cleared
+     *
+     * @param oldSize the size of the sequence before it was cleared
+     */
+    @Override
+    public void sequenceCleared(int oldSize) {
+        beginChange();
+        nextRemove(0, new AbstractList<Integer>() {
+
+            /**
+             * Returns a removed step, which stays readable in the buffer
+             * until it is overwritten
+             *
+             * @param index the index of the step
+             * @return the light index of the step
+             */
+            @Override
+            public Integer get(int index) {
+                return buffer.getUnchecked(index);
+            }
+
+            /**
+             * A getter method for the number of removed steps
+             *
+             * @return the size of the sequence before it was cleared
+             */
+            @Override
+            public int size() {
+                return oldSize;
+            }
+        });
+        endChange();
+    }
+
+    /**
+     * Fires one add change for a run of loaded steps
+     *
+     * @param from the index of the first loaded step
+     * @param to   the index after the last loaded step
+     */
+    @Override
+    public void stepsAdded(int from, int to) {
+        beginChange();
+        nextAdd(from, to);
+        endChange();
+    }
+}
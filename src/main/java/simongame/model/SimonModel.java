@@ -17,19 +17,77 @@ package simongame.model;
 import java.util.ArrayList;
 
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.beans.property.SimpleIntegerProperty;
 
-import java.util.Random;
-
 import simongame.Light;
+import simongame.engine.EngineListener;
+import simongame.engine.SequenceBuffer;
+import simongame.engine.SequenceGenerator;
+import simongame.engine.SimonEngine;
+import simongame.engine.scores.HighScoreStore;
 
 /**
- * A model class for the traffic light
+ * A model class for the traffic light. The game rules live in a
+ * {@link SimonEngine}; this class exposes them as JavaFX properties.
  */
 public class SimonModel {
 
+    /**
+     * The result of a press that matched the expected light
+     */
+    public static final int INPUT_CORRECT = SimonEngine.INPUT_CORRECT;
+
+    /**
+     * The result of a press that matched the expected light and finished
+     * the round. The next step has already been added to the sequence.
+     */
+    public static final int INPUT_ROUND_COMPLETE = SimonEngine.INPUT_ROUND_COMPLETE;
+
+    /**
+     * The result of a press that did not match the expected light
+     */
+    public static final int INPUT_WRONG = SimonEngine.INPUT_WRONG;
+
+    /**
+     * The result of a press made while no game is in progress
+     */
+    public static final int INPUT_IGNORED = SimonEngine.INPUT_IGNORED;
+
+    /**
+     * The state before the first game and after a game is abandoned
+     */
+    public static final int STATE_IDLE = SimonEngine.STATE_IDLE;
+
+    /**
+     * The state while the sequence is being played to the user
+     */
+    public static final int STATE_PLAYBACK = SimonEngine.STATE_PLAYBACK;
+
+    /**
+     * The state while the user's presses are being checked
+     */
+    public static final int STATE_AWAIT_INPUT = SimonEngine.STATE_AWAIT_INPUT;
+
+    /**
+     * The state after the user pressed the wrong light
+     */
+    public static final int STATE_GAME_OVER = SimonEngine.STATE_GAME_OVER;
+
+    /**
+     * The engine that holds the game rules and state
+     */
+    private final SimonEngine engine;
+
+    /**
+     * A getter method for the engine that holds the game rules and state
+     *
+     * @return the engine
+     */
+    public SimonEngine getEngine() {
+        return engine;
+    }
+
     /**
      * A getter for the lights array
      */
@@ -69,43 +127,47 @@ public class SimonModel {
     }
 
     /**
-     * Our observable list of integers that represents the game sequence
+     * Our packed sequence of light indices that represents the game sequence
      *
      * @return the game sequence
      */
-    public ObservableList<Integer> getGameSequence() {
-        return gameSequence;
+    public SequenceBuffer getGameSequence() {
+        return engine.getGameSequence();
     }
 
     /**
-     * Our observable list of integers that represents the user sequence
+     * A read-only observable view of the game sequence. The view is
+     * created the first time it is asked for, so the sequence does not
+     * fire change events unless the UI needs them.
      *
-     * @return the user sequence
+     * @return the observable game sequence
      */
-    private ObservableList<Integer> gameSequence = FXCollections.observableArrayList();
-
-    /**
-     * Our observable list of integers that represents the user sequence
-     *
-     * @return the user sequence
-     */
-    private ObservableList<Integer> userSequence = FXCollections.observableArrayList();
+    public ObservableList<Integer> getGameSequenceView() {
+        if (gameSequenceView == null) {
+            gameSequenceView = new ObservableSequence(engine.getGameSequence());
+        }
+        return gameSequenceView;
+    }
 
     /**
-     * A boolean property to determine if the game is in progress
+     * The observable view of the game sequence, or null until it is needed
      */
-    private boolean gameInProgress = false;
+    private ObservableSequence gameSequenceView;
 
     /**
-     * A random number generator
+     * A getter method for the input cursor
+     *
+     * @return the index of the step the user is expected to press next
      */
-    private Random random = new Random();
+    public int getInputCursor() {
+        return engine.getInputCursor();
+    }
 
     /**
      * A getter method for the score
      */
     public int getScore() {
-        return score;
+        return engine.getScore();
     }
 
     /**
@@ -114,26 +176,75 @@ public class SimonModel {
     private SimpleIntegerProperty scoreProperty;
 
     /**
-     * A method to calculate the score
+     * An integer property to represent the best score ever played
      */
-    private int score;
+    private SimpleIntegerProperty personalBestProperty;
 
     /**
      * A constructor for the SimonModel class
      */
     public SimonModel() {
+        this(new SimonEngine());
+    }
+
+    /**
+     * A constructor for the SimonModel class over an existing engine
+     *
+     * @param engine the engine that holds the game rules and state
+     */
+    public SimonModel(SimonEngine engine) {
+        this.engine = engine;
+
         // Initialize the lights array
         this.lights = new ArrayList<>();
 
-        // Let's initialize their colors and add them to the array
-        for (LightColorEnum light : LightColorEnum.values())
-            this.lights.add(new Light(light.getColor()));
+        // Let's wrap the engine lights and add them to the array
+        for (int i = 0; i < engine.getLightCount(); i++)
+            this.lights.add(new Light(engine.getLight(i)));
 
         // Initialize the auto off property
         this.isAutoOff = new SimpleBooleanProperty(false);
 
-        // Initialize score to 0
-        scoreProperty = new SimpleIntegerProperty(0);
+        // Initialize score to the engine's score and keep it in step
+        scoreProperty = new SimpleIntegerProperty(engine.getScore());
+        personalBestProperty = new SimpleIntegerProperty(0);
+        engine.addListener(new EngineListener() {
+
+            /**
+             * Mirrors the engine's score in the score property
+             *
+             * @param score the new score
+             */
+            @Override
+            public void scoreChanged(int score) {
+                scoreProperty.set(score);
+            }
+
+            /**
+             * Takes the final score as the personal best if it beats it
+             *
+             * @param score the final score
+             */
+            @Override
+            public void gameOver(int score) {
+                if (score > personalBestProperty.get()) {
+                    personalBestProperty.set(score);
+                }
+            }
+        });
+    }
+
+    /**
+     * Keeps the model's games in a high-score store and starts the
+     * personal best from the best score in it
+     *
+     * @param store the high-score store
+     */
+    public void setHighScores(HighScoreStore store) {
+        engine.addListener(store);
+        if (store.getPersonalBest() > personalBestProperty.get()) {
+            personalBestProperty.set(store.getPersonalBest());
+        }
     }
 
     /**
@@ -143,58 +254,96 @@ public class SimonModel {
         return scoreProperty;
     }
 
+    /**
+     * A method to get the personal best property
+     */
+    public SimpleIntegerProperty personalBestProperty() {
+        return personalBestProperty;
+    }
+
     /**
      * A method to start a new game
      */
     public void startNewGame() {
-        gameSequence.clear();
-        userSequence.clear();
-        gameInProgress = true;
-        score = 0;
-        generateNextInSequence();
+        engine.startNewGame();
     }
 
     /**
-     * A method to generate the next light in the sequence
+     * A getter method for the state of the game
+     *
+     * @return one of the {@code STATE_} constants
      */
-    public void generateNextInSequence() {
-        gameSequence.add(random.nextInt(getLights().size()));
+    public int getState() {
+        return engine.getState();
     }
 
     /**
-     * A method to add user input
+     * A method to mark the start of the sequence's playback, during which
+     * presses are ignored
+     *
+     * @return true if a game is in progress
      */
-    public void addUserInput(int lightIndex) {
-        if (!gameInProgress) return;
-        userSequence.add(lightIndex);
-        if (!isSequenceCorrect()) {
-            gameInProgress = false;
-            // Handle game over
-        } else if (userSequence.size() == gameSequence.size()) {
-            userSequence.clear();
-            score += 1; // Increment the score
-            scoreProperty.set(score); // Update the score property
-            generateNextInSequence();
-        }
+    public boolean beginPlayback() {
+        return engine.beginPlayback();
     }
 
     /**
-     * A method to check if the user sequence is correct
+     * A method to mark the end of the sequence's playback
+     *
+     * @return true if the sequence was playing back
      */
-    private boolean isSequenceCorrect() {
-        for (int i = 0; i < userSequence.size(); i++) {
-            if (!userSequence.get(i).equals(gameSequence.get(i))) {
-                return false;
-            }
-        }
-        return true;
+    public boolean endPlayback() {
+        return engine.endPlayback();
+    }
+
+    /**
+     * A method to abandon the current game, as when the user quits
+     */
+    public void abandonGame() {
+        engine.abandonGame();
+    }
+
+    /**
+     * A getter method for the generator
+     *
+     * @return the strategy that picks the steps of each game
+     */
+    public SequenceGenerator getGenerator() {
+        return engine.getGenerator();
+    }
+
+    /**
+     * Sets the strategy that picks the steps of each game
+     *
+     * @param generator the generator
+     */
+    public void setGenerator(SequenceGenerator generator) {
+        engine.setGenerator(generator);
+    }
+
+    /**
+     * A method to generate the next light in the sequence
+     */
+    public void generateNextInSequence() {
+        engine.generateNextInSequence();
+    }
+
+    /**
+     * A method to add user input. Only the newest press is compared
+     * against the expected light, so each press takes constant time.
+     *
+     * @param lightIndex the index of the light the user pressed
+     * @return one of {@link #INPUT_CORRECT}, {@link #INPUT_ROUND_COMPLETE},
+     * {@link #INPUT_WRONG} or {@link #INPUT_IGNORED}
+     */
+    public int addUserInput(int lightIndex) {
+        return engine.addUserInput(lightIndex);
     }
 
     /**
      * A method to extend the sequence
      */
     public void extendSequence() {
-        int nextLightIndex = new Random().nextInt(4);
-        gameSequence.add(nextLightIndex);
+        engine.extendSequence();
     }
 }
\ No newline at end of file
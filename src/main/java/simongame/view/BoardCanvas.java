@@ -0,0 +1,301 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 1:05 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.view
+ * Class: BoardCanvas
+ *
+ * Description: A board of pads drawn on a single canvas
+ *
+ * ****************************************
+ */
+
+package simongame.view;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Draws every pad of a board onto one {@link Canvas} instead of a node
+ * per pad. Changing a pad's state only marks it dirty; on the next pulse
+ * the dirty pads, and nothing else, are drawn again. A resize redraws the
+ * whole board once per pulse. Clicks are hit-tested against the grid
+ * arithmetically, so finding the pad under the mouse costs the same on
+ * any size of board.
+ * <p>
+ * The pads are laid out in a grid with a gap between them, like the
+ * {@link javafx.scene.layout.GridPane} of the node-based view.
+ */
+public class BoardCanvas extends Region {
+
+    /**
+     * The gap between pads and around the board, in pixels
+     */
+    private static final double GAP = 10;
+
+    /**
+     * The width of the border drawn around a pressed pad, in pixels
+     */
+    private static final double PRESSED_BORDER = 6;
+
+    /**
+     * The canvas the board is drawn on
+     */
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * The number of columns of pads
+     */
+    private final int columns;
+
+    /**
+     * The number of rows of pads
+     */
+    private final int rows;
+
+    /**
+     * The color of each pad when off
+     */
+    private final Color[] offColors;
+
+    /**
+     * The color of each pad when lit
+     */
+    private final Color[] onColors;
+
+    /**
+     * The state of each pad, one of the {@link PadImages} states
+     */
+    private final int[] states;
+
+    /**
+     * One bit per pad that needs to be drawn again
+     */
+    private final long[] dirty;
+
+    /**
+     * Does the whole board need to be drawn again?
+     */
+    private boolean allDirty = true;
+
+    /**
+     * Is a redraw already waiting for the next pulse?
+     */
+    private boolean redrawScheduled;
+
+    /**
+     * Called with the index of a pad that was clicked, may be null
+     */
+    private IntConsumer onPadClicked;
+
+    /**
+     * Draws the dirty pads on the next pulse, then stops until more pads
+     * become dirty
+     */
+    private final AnimationTimer redrawTimer = new AnimationTimer() {
+
+        /**
+         * Draws the dirty pads
+         *
+         * @param now the time of the pulse
+         */
+        @Override
+        public void handle(long now) {
+            redraw();
+        }
+    };
+
+    /**
+     * Constructs a board
+     *
+     * @param offColors the color of each pad when off
+     * @param onColors  the color of each pad when lit
+     * @param columns   the number of columns of pads
+     */
+    public BoardCanvas(Color[] offColors, Color[] onColors, int columns) {
+        this.offColors = offColors;
+        this.onColors = onColors;
+        this.columns = columns;
+        this.rows = (offColors.length + columns - 1) / columns;
+        this.states = new int[offColors.length];
+        this.dirty = new long[(offColors.length + Long.SIZE - 1) / Long.SIZE];
+
+        getChildren().add(canvas);
+        // The board is about 1100 x 400 like the node-based view's lights
+        setPrefSize(1100 + GAP * (columns + 1), 400 + GAP * (rows + 1));
+        setMinSize(0, 0);
+
+        setOnMouseClicked(event -> {
+            int index = padAt(event.getX(), event.getY());
+            if (index >= 0 && onPadClicked != null) {
+                onPadClicked.accept(index);
+            }
+        });
+    }
+
+    /**
+     * Sets what happens when a pad is clicked
+     *
+     * @param onPadClicked called with the index of the clicked pad
+     */
+    public void setOnPadClicked(IntConsumer onPadClicked) {
+        this.onPadClicked = onPadClicked;
+    }
+
+    /**
+     * Shows a pad in a state. The pad is drawn on the next pulse.
+     *
+     * @param index the index of the pad
+     * @param state one of the {@link PadImages} states
+     */
+    public void setState(int index, int state) {
+        if (states[index] == state) {
+            return;
+        }
+        states[index] = state;
+        dirty[index >>> 6] |= 1L << index;
+        scheduleRedraw();
+    }
+
+    /**
+     * Returns the pad under a point
+     *
+     * @param x the x coordinate in the board
+     * @param y the y coordinate in the board
+     * @return the index of the pad, or -1 if the point is in a gap or
+     * outside the board
+     */
+    public int padAt(double x, double y) {
+        double cellWidth = cellWidth();
+        double cellHeight = cellHeight();
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            return -1;
+        }
+        int column = (int) Math.floor((x - GAP) / (cellWidth + GAP));
+        int row = (int) Math.floor((y - GAP) / (cellHeight + GAP));
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return -1;
+        }
+        // Clicks in the gap after a pad miss it
+        if (x - GAP - column * (cellWidth + GAP) > cellWidth
+                || y - GAP - row * (cellHeight + GAP) > cellHeight) {
+            return -1;
+        }
+        int index = row * columns + column;
+        return index < states.length ? index : -1;
+    }
+
+    /**
+     * Resizes the canvas with the board and draws it all again
+     */
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (width != canvas.getWidth() || height != canvas.getHeight()) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            allDirty = true;
+            scheduleRedraw();
+        }
+    }
+
+    /**
+     * Asks for a redraw on the next pulse
+     */
+    private void scheduleRedraw() {
+        if (!redrawScheduled) {
+            redrawScheduled = true;
+            redrawTimer.start();
+        }
+    }
+
+    /**
+     * Draws the dirty pads now instead of on the next pulse, if a redraw
+     * is waiting
+     */
+    void flush() {
+        if (redrawScheduled) {
+            redraw();
+        }
+    }
+
+    /**
+     * Draws every dirty pad, or the whole board after a resize
+     */
+    private void redraw() {
+        redrawTimer.stop();
+        redrawScheduled = false;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        if (allDirty) {
+            allDirty = false;
+            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for (int i = 0; i < states.length; i++) {
+                drawPad(gc, i);
+            }
+            Arrays.fill(dirty, 0);
+            return;
+        }
+        for (int word = 0; word < dirty.length; word++) {
+            long bits = dirty[word];
+            dirty[word] = 0;
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                drawPad(gc, index);
+            }
+        }
+    }
+
+    /**
+     * Draws one pad over its own region of the canvas
+     *
+     * @param gc    the canvas to draw on
+     * @param index the index of the pad
+     */
+    private void drawPad(GraphicsContext gc, int index) {
+        double cellWidth = Math.floor(cellWidth());
+        double cellHeight = Math.floor(cellHeight());
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            return;
+        }
+        double x = Math.floor(GAP + (index % columns) * (cellWidth() + GAP));
+        double y = Math.floor(GAP + (index / columns) * (cellHeight() + GAP));
+
+        int state = states[index];
+        gc.setFill(state == PadImages.OFF ? offColors[index] : onColors[index]);
+        gc.fillRect(x, y, cellWidth, cellHeight);
+        if (state == PadImages.PRESSED) {
+            gc.setStroke(Color.BLACK);
+            gc.setLineWidth(PRESSED_BORDER);
+            gc.strokeRect(x + PRESSED_BORDER / 2, y + PRESSED_BORDER / 2,
+                    cellWidth - PRESSED_BORDER, cellHeight - PRESSED_BORDER);
+        }
+    }
+
+    /**
+     * Returns the width of a pad at the current size
+     *
+     * @return the width in pixels
+     */
+    private double cellWidth() {
+        return (canvas.getWidth() - GAP * (columns + 1)) / columns;
+    }
+
+    /**
+     * Returns the height of a pad at the current size
+     *
+     * @return the height in pixels
+     */
+    private double cellHeight() {
+        return (canvas.getHeight() - GAP * (rows + 1)) / rows;
+    }
+}
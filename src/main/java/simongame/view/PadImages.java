@@ -0,0 +1,177 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 12:10 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.view
+ * Class: PadImages
+ *
+ * Description: The pre-rendered images of a pad's states
+ *
+ * ****************************************
+ */
+
+package simongame.view;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.effect.Effect;
+import javafx.scene.effect.Glow;
+import javafx.scene.effect.InnerShadow;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * The images of one pad in each of its states: off, lit and pressed. The
+ * lit and pressed looks use effects, but the effects are rendered once
+ * into a {@link WritableImage} with {@code snapshot}, so showing a state
+ * is only a swap of {@link ImagePattern} fills with no effect pass.
+ * <p>
+ * The images are rendered again only when the pad changes size. Rendering
+ * must happen on the JavaFX thread.
+ */
+public class PadImages {
+
+    /**
+     * The state of a pad that is off
+     */
+    public static final int OFF = 0;
+
+    /**
+     * The state of a pad that is lit
+     */
+    public static final int LIT = 1;
+
+    /**
+     * The state of a pad that is lit and pressed
+     */
+    public static final int PRESSED = 2;
+
+    /**
+     * The effect of a lit pad
+     */
+    private static final Glow LIT_EFFECT = new Glow(0.8);
+
+    /**
+     * The effect of a pressed pad, a lit pad sunk in by an inner shadow
+     */
+    private static final InnerShadow PRESSED_EFFECT = new InnerShadow(10, Color.BLACK);
+
+    static {
+        PRESSED_EFFECT.setInput(LIT_EFFECT);
+    }
+
+    /**
+     * The shape every image is rendered from, shared by all pads
+     */
+    private static final Rectangle STAMP = new Rectangle();
+
+    /**
+     * The snapshot settings, shared by all pads
+     */
+    private static final SnapshotParameters PARAMETERS = new SnapshotParameters();
+
+    static {
+        PARAMETERS.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * The color of the pad when off
+     */
+    private final Color offColor;
+
+    /**
+     * The color of the pad when lit
+     */
+    private final Color onColor;
+
+    /**
+     * The images by state
+     */
+    private final WritableImage[] images = new WritableImage[3];
+
+    /**
+     * The images by state as fills that stretch over a whole shape
+     */
+    private final ImagePattern[] patterns = new ImagePattern[3];
+
+    /**
+     * The width the images were rendered at
+     */
+    private int width;
+
+    /**
+     * The height the images were rendered at
+     */
+    private int height;
+
+    /**
+     * Constructs the images of a pad, rendered once the pad has a size
+     *
+     * @param offColor the color of the pad when off
+     * @param onColor  the color of the pad when lit
+     */
+    public PadImages(Color offColor, Color onColor) {
+        this.offColor = offColor;
+        this.onColor = onColor;
+    }
+
+    /**
+     * Renders the images at a size, unless they already have it
+     *
+     * @param width  the width of the pad in pixels
+     * @param height the height of the pad in pixels
+     * @return true if the images were rendered
+     */
+    public boolean render(int width, int height) {
+        if (width <= 0 || height <= 0 || (width == this.width && height == this.height)) {
+            return false;
+        }
+        this.width = width;
+        this.height = height;
+        STAMP.setWidth(width);
+        STAMP.setHeight(height);
+        images[OFF] = stamp(offColor, null);
+        images[LIT] = stamp(onColor, LIT_EFFECT);
+        images[PRESSED] = stamp(onColor, PRESSED_EFFECT);
+        for (int state = OFF; state <= PRESSED; state++) {
+            patterns[state] = new ImagePattern(images[state]);
+        }
+        return true;
+    }
+
+    /**
+     * Renders the stamp into a new image
+     *
+     * @param fill   the color of the pad
+     * @param effect the effect of the pad, or null
+     * @return the rendered image
+     */
+    private static WritableImage stamp(Color fill, Effect effect) {
+        STAMP.setFill(fill);
+        STAMP.setEffect(effect);
+        return STAMP.snapshot(PARAMETERS, null);
+    }
+
+    /**
+     * Returns the image of a state
+     *
+     * @param state {@link #OFF}, {@link #LIT} or {@link #PRESSED}
+     * @return the image, or null before the first render
+     */
+    public WritableImage get(int state) {
+        return images[state];
+    }
+
+    /**
+     * Returns the image of a state as a fill
+     *
+     * @param state {@link #OFF}, {@link #LIT} or {@link #PRESSED}
+     * @return the fill, or null before the first render
+     */
+    public ImagePattern getPattern(int state) {
+        return patterns[state];
+    }
+}
@@ -0,0 +1,36 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 12:20 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.view
+ * Class: PadRendering
+ *
+ * Description: The ways the view can draw its pads
+ *
+ * ****************************************
+ */
+
+package simongame.view;
+
+/**
+ * The ways {@link SimonView} can draw its pads
+ */
+public enum PadRendering {
+
+    /**
+     * Each pad is a shape whose lit and pressed looks are live effects
+     */
+    EFFECTS,
+
+    /**
+     * Each pad shows one of its pre-rendered {@link PadImages}
+     */
+    IMAGES,
+
+    /**
+     * The whole board is one {@link BoardCanvas} with no node per pad
+     */
+    CANVAS
+}
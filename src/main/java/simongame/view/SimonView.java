@@ -14,28 +14,45 @@
 
 package simongame.view;
 
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 
 import java.util.ArrayList;
+import java.util.function.IntConsumer;
 
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.Glow;
-import javafx.scene.control.Alert;
-import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
 
 import simongame.model.SimonModel;
 import simongame.Light;
-import simongame.model.LightColorEnum;
 
 /**
  * A class that represents the view of the Simon game
  */
 public class SimonView {
 
+    /**
+     * The glow of a lit light, shared by every light
+     */
+    private static final Glow LIT_EFFECT = new Glow(0.8);
+
+    /**
+     * The look of a pressed light, shared by every light
+     */
+    private static final DropShadow PRESSED_EFFECT = new DropShadow(10, Color.BLACK);
+
+    static {
+        PRESSED_EFFECT.setInput(LIT_EFFECT);
+    }
+
     /**
      * A getter method that returns the array of lights
      */
@@ -59,15 +76,60 @@ public class SimonView {
      *
      * @return the root of the scene graph
      */
-    public VBox getRoot() {
-        return root;
+    public StackPane getRoot() {
+        return stack;
     }
 
     /**
-     * The {@link VBox} that contains the scene graph
+     * The {@link StackPane} at the root of the scene graph, holding the
+     * game with the game-over overlay on top of it
+     */
+    private StackPane stack;
+
+    /**
+     * The {@link VBox} that contains the game
      */
     private VBox root;
 
+    /**
+     * The game-over overlay, built once and shown over the game
+     */
+    private VBox gameOverOverlay;
+
+    /**
+     * The game-over message with the final score
+     */
+    private Label lblGameOver;
+
+    /**
+     * A getter method that returns the Play Again button of the game-over
+     * overlay
+     *
+     * @return the Play Again button
+     */
+    public Button getBtnPlayAgain() {
+        return btnPlayAgain;
+    }
+
+    /**
+     * The Play Again button of the game-over overlay
+     */
+    private Button btnPlayAgain;
+
+    /**
+     * A getter method that returns the Quit button of the game-over overlay
+     *
+     * @return the Quit button
+     */
+    public Button getBtnOverlayQuit() {
+        return btnOverlayQuit;
+    }
+
+    /**
+     * The Quit button of the game-over overlay
+     */
+    private Button btnOverlayQuit;
+
     /**
      * The {@link GridPane} that contains the lights
      */
@@ -116,37 +178,174 @@ public class SimonView {
     private Label lblStatus;
 
     /**
-     * A getter method that returns the light
+     * A getter method that returns the score label
      *
-     * @return the light
+     * @return the score label
      */
-    private Rectangle light;
+    private Label lblScore;
 
     /**
-     * A getter method that returns the score label
+     * The personal best label
+     */
+    private Label lblBest;
+
+    /**
+     * A getter method that returns the debug overlay label
      *
-     * @return the score label
+     * @return the debug overlay label
      */
-    private Label lblScore;
+    public Label getLblDebug() {
+        return lblDebug;
+    }
 
     /**
-     * A constructor that creates a {@link SimonView} object
+     * The debug overlay label that shows latency numbers
+     */
+    private Label lblDebug;
+
+    /**
+     * How the lights are drawn
+     */
+    private final PadRendering rendering;
+
+    /**
+     * The pre-rendered images of each light, or null unless the lights
+     * are drawn as images
+     */
+    private PadImages[] padImages;
+
+    /**
+     * The number of columns the lights are laid out in
+     */
+    private int columns;
+
+    /**
+     * The canvas the whole board is drawn on, or null unless the lights
+     * are drawn on a canvas
+     */
+    private BoardCanvas boardCanvas;
+
+    /**
+     * The state each light is shown in, one of the {@link PadImages} states
+     */
+    private int[] padStates;
+
+    /**
+     * The color of each light when off, or null unless the lights are
+     * drawn with live effects
+     */
+    private Color[] offColors;
+
+    /**
+     * The color of each light when lit, or null unless the lights are
+     * drawn with live effects
+     */
+    private Color[] onColors;
+
+    /**
+     * Gathers the changes to what the view shows and applies them once per
+     * pulse
+     */
+    private final UpdateDispatcher updates;
+
+    /**
+     * Is a resize of the lights already waiting for the next pulse?
+     */
+    private boolean resizeScheduled;
+
+    /**
+     * The width the lights were last given, or -1 before the first resize
+     */
+    private double appliedLightWidth = -1;
+
+    /**
+     * The number of times the grid of lights was laid out
+     */
+    private volatile long layoutPasses;
+
+    /**
+     * The number of times the lights were given a new size
+     */
+    private volatile long geometryUpdates;
+
+    /**
+     * Sizes the lights to the window on the next pulse, then stops until
+     * the window changes size again
+     */
+    private final AnimationTimer resizeTimer = new AnimationTimer() {
+
+        /**
+         * Sizes the lights to the window
+         *
+         * @param now the time of the pulse
+         */
+        @Override
+        public void handle(long now) {
+            resizeLights();
+        }
+    };
+
+    /**
+     * A constructor that creates a {@link SimonView} object with the lights
+     * drawn as pre-rendered images
      *
      * @param theModel
      */
     public SimonView(SimonModel theModel) {
+        this(theModel, PadRendering.IMAGES);
+    }
+
+    /**
+     * A constructor that creates a {@link SimonView} object
+     *
+     * @param theModel
+     * @param rendering how the lights are drawn
+     */
+    public SimonView(SimonModel theModel, PadRendering rendering) {
         this.theModel = theModel;
+        this.rendering = rendering;
+        this.updates = new UpdateDispatcher(this, theModel.getLights().size());
 
         // Initialize the scene graph
         initSceneGraph();
         // Initialize the styling
         initStyling();
 
-        // Initialize the lights
-        initializeLights();
-
         // Initialize the game controls
         gameControls();
+
+        // Initialize the game-over overlay
+        gameOverOverlay();
+
+        // Apply the changes on the pulses of whatever scene shows the view
+        updates.attach(stack);
+    }
+
+    /**
+     * A getter method for the dispatcher that changes what the view shows
+     * once per pulse
+     *
+     * @return the update dispatcher
+     */
+    public UpdateDispatcher getUpdates() {
+        return updates;
+    }
+
+    /**
+     * A method that builds the game-over overlay once. It covers the whole
+     * game while it shows, so clicks can't reach the lights behind it.
+     */
+    private void gameOverOverlay() {
+        lblGameOver = new Label();
+        lblGameOver.setTextFill(Color.WHITE);
+        btnPlayAgain = new Button("Play Again");
+        btnOverlayQuit = new Button("Quit");
+
+        gameOverOverlay = new VBox(10, lblGameOver, btnPlayAgain, btnOverlayQuit);
+        gameOverOverlay.setAlignment(javafx.geometry.Pos.CENTER);
+        gameOverOverlay.setStyle("-fx-background-color: rgba(21, 34, 56, 0.85);");
+        gameOverOverlay.setVisible(false);
+        stack.getChildren().add(gameOverOverlay);
     }
 
     /**
@@ -165,8 +364,12 @@ public class SimonView {
         btnQuitGame = new Button("Quit Game");
         btnQuitGame.setVisible(false); // Initially, the Quit Game button is not visible
 
+        // Initialize the personal best label
+        lblBest = new Label("Best: 0");
+        lblBest.setTextFill(Color.WHITE);
+
         // Create a VBox to hold the game controls
-        VBox gameControls = new VBox(5, btnStartGame, btnQuitGame, lblStatus);
+        VBox gameControls = new VBox(5, btnStartGame, btnQuitGame, lblStatus, lblBest);
         gameControls.setAlignment(javafx.geometry.Pos.CENTER);
         root.getChildren().add(gameControls); // Add game controls to our layout
     }
@@ -177,10 +380,28 @@ public class SimonView {
      * @return the root of the scene graph
      */
     private void initSceneGraph() {
-        // Initialize the grid pane
-        grid = new GridPane();
+        // Initialize the grid pane, counting its layout passes
+        grid = new GridPane() {
+
+            /**
+             * Counts the layout pass, then lays out the lights
+             */
+            @Override
+            protected void layoutChildren() {
+                layoutPasses++;
+                super.layoutChildren();
+            }
+        };
         // Initialize the root
         root = new VBox();
+        stack = new StackPane(root);
+
+        // Initialize the debug overlay at the top, hidden until it is turned on
+        lblDebug = new Label();
+        lblDebug.setTextFill(Color.LIGHTGREEN);
+        lblDebug.setStyle("-fx-font-family: monospace;");
+        lblDebug.setVisible(false);
+        root.getChildren().add(lblDebug);
 
         // Initialize the Score Label
         lblScore = new Label("Score: " + theModel.getScore());
@@ -189,35 +410,241 @@ public class SimonView {
 //        // Add the score label to our layout before the grid
 //        grid.add(lblScore, 0, 0, theModel.getLights().size(), 1);
 
-        this.lights = new ArrayList<>();
-        for (int i = 0; i < theModel.getLights().size(); i++) {
-            // Get the light from the model
-            Light modelLight = theModel.getLights().get(i);
-            // Set the initial size of the light to be 550 x 200
-            Rectangle light = new Rectangle(550, 200);
+        // Lay the lights out in a square-ish grid, two by two for the classic board
+        int count = theModel.getLights().size();
+        this.columns = (int) Math.ceil(Math.sqrt(count));
+        int rows = (count + columns - 1) / columns;
+
+        this.lights = new ArrayList<>(count);
+        this.padStates = new int[count];
+        if (rendering == PadRendering.CANVAS) {
+            initBoardCanvas();
+        } else {
+            for (int i = 0; i < count; i++) {
+                // Size the light so the board is about 1100 x 400, 550 x 200 per light on the classic board
+                Rectangle light = new Rectangle(1100.0 / columns, 400.0 / rows);
+
+                // Set a style class so that we can set additional styles in CSS later
+                light.getStyleClass().add("light");
+
+                // Add the light to our array
+                lights.add(light);
+
+                // Add the light to the grid
+                grid.add(light, i % columns, 1 + (i / columns));
+            }
+
+            if (rendering == PadRendering.IMAGES) {
+                initPadImages();
+            } else {
+                // Light each light with its model light, on the next pulse
+                offColors = new Color[count];
+                onColors = new Color[count];
+                for (int i = 0; i < count; i++) {
+                    Light modelLight = theModel.getLight(i);
+                    offColors[i] = Light.toColor(modelLight.getPadLight().getOffArgb());
+                    onColors[i] = Light.toColor(modelLight.getPadLight().getOnArgb());
+                    lights.get(i).setFill(offColors[i]);
+                    int index = i;
+                    modelLight.isOnProperty().addListener(observable -> updates.setLightState(index,
+                            modelLight.isIsOn() ? PadImages.LIT : PadImages.OFF));
+                }
+            }
+
+            // However many times the window changes size between pulses, the
+            // lights are sized once, on the next pulse
+            InvalidationListener resized = observable -> scheduleResize();
+            stack.widthProperty().addListener(resized);
+            stack.heightProperty().addListener(resized);
+            scheduleResize();
+        }
+
+        // Add the light to the root
+        this.root.getChildren().add(grid);
+    }
+
+    /**
+     * A method that draws the whole board on a single canvas that grows
+     * with the window
+     */
+    private void initBoardCanvas() {
+        int count = theModel.getLights().size();
+        Color[] offColors = new Color[count];
+        Color[] onColors = new Color[count];
+        for (int i = 0; i < count; i++) {
+            Light modelLight = theModel.getLight(i);
+            offColors[i] = Light.toColor(modelLight.getPadLight().getOffArgb());
+            onColors[i] = Light.toColor(modelLight.getPadLight().getOnArgb());
+        }
+        boardCanvas = new BoardCanvas(offColors, onColors, columns);
+        GridPane.setHgrow(boardCanvas, Priority.ALWAYS);
+        GridPane.setVgrow(boardCanvas, Priority.ALWAYS);
+        VBox.setVgrow(grid, Priority.ALWAYS);
+        grid.add(boardCanvas, 0, 1);
+    }
 
-            // Set a style class so that we can set additional styles in CSS later
-            light.getStyleClass().add("light");
+    /**
+     * A method that sets what happens when the user clicks a light, however
+     * the lights are drawn
+     *
+     * @param onLightClicked called with the index of the clicked light
+     */
+    public void setOnLightClicked(IntConsumer onLightClicked) {
+        if (boardCanvas != null) {
+            boardCanvas.setOnPadClicked(onLightClicked);
+        } else {
+            for (int i = 0; i < lights.size(); i++) {
+                int index = i;
+                lights.get(i).setOnMouseClicked(event -> onLightClicked.accept(index));
+            }
+        }
+    }
 
-            // Set the fill color based on the model
+    /**
+     * A getter method that returns how the lights are drawn
+     *
+     * @return how the lights are drawn
+     */
+    public PadRendering getRendering() {
+        return rendering;
+    }
+
+    /**
+     * A method that fills every light with its pre-rendered images. Each
+     * light stays a single rectangle, so swapping its look is only a fill
+     * change.
+     */
+    private void initPadImages() {
+        padImages = new PadImages[lights.size()];
+        for (int i = 0; i < lights.size(); i++) {
+            Rectangle light = lights.get(i);
+            Light modelLight = theModel.getLight(i);
+            padImages[i] = new PadImages(
+                    Light.toColor(modelLight.getPadLight().getOffArgb()),
+                    Light.toColor(modelLight.getPadLight().getOnArgb()));
             light.setFill(modelLight.getCurrentColor());
+        }
+    }
 
-            // Add the light to our array
-            lights.add(light);
+    /**
+     * A method that sizes the lights on the next pulse, once for any number
+     * of size changes in between
+     */
+    private void scheduleResize() {
+        if (!resizeScheduled) {
+            resizeScheduled = true;
+            resizeTimer.start();
+        }
+    }
 
-            // Add the light to the grid
-            grid.add(light, i % 2, 1 + (i / 2));
+    /**
+     * A method that sizes the lights to the window. The lights share a
+     * third of the window's larger side per column, less 15 pixels, snapped
+     * to whole pixels; a size the lights already have costs nothing, not
+     * even a layout pass. The pad images are rendered again in the same
+     * pulse, before the lights are laid out.
+     */
+    private void resizeLights() {
+        resizeTimer.stop();
+        resizeScheduled = false;
+        if (stack.getWidth() <= 0 || stack.getHeight() <= 0) {
+            // Not laid out yet, keep the starting size
+            return;
+        }
+        double size = Math.max(stack.getWidth(), stack.getHeight()) / (3 * columns) - 15;
+        double width = stack.snapSizeX(Math.max(0, size));
+        if (width == appliedLightWidth) {
+            return;
         }
+        appliedLightWidth = width;
+        geometryUpdates++;
+        for (Rectangle light : lights) {
+            light.setWidth(width);
+        }
+        if (padImages != null) {
+            renderPadImages();
+        }
+    }
 
-        // Add the light to the root
-        this.root.getChildren().add(grid);
+    /**
+     * A getter method for the number of times the grid of lights was laid out
+     *
+     * @return the number of layout passes
+     */
+    public long getLayoutPassCount() {
+        return layoutPasses;
+    }
+
+    /**
+     * A getter method for the number of times the lights were given a new size
+     *
+     * @return the number of size updates
+     */
+    public long getGeometryUpdateCount() {
+        return geometryUpdates;
+    }
+
+    /**
+     * A method that renders the pad images of every light whose size changed
+     */
+    private void renderPadImages() {
+        for (int i = 0; i < padImages.length; i++) {
+            Rectangle light = lights.get(i);
+            if (padImages[i].render((int) Math.round(light.getWidth()), (int) Math.round(light.getHeight()))) {
+                lights.get(i).setFill(padImages[i].getPattern(padStates[i]));
+            }
+        }
+    }
+
+    /**
+     * A method that shows a light in a state
+     *
+     * @param index the index of the light
+     * @param state one of the {@link PadImages} states
+     */
+    private void showState(int index, int state) {
+        padStates[index] = state;
+        if (rendering == PadRendering.CANVAS) {
+            boardCanvas.setState(index, state);
+        } else if (rendering == PadRendering.IMAGES) {
+            if (padImages[index].getPattern(state) != null) {
+                lights.get(index).setFill(padImages[index].getPattern(state));
+            }
+        } else {
+            lights.get(index).setFill(state == PadImages.OFF ? offColors[index] : onColors[index]);
+            lights.get(index).setEffect(state == PadImages.PRESSED ? PRESSED_EFFECT
+                    : state == PadImages.LIT ? LIT_EFFECT : null);
+        }
+    }
+
+    /**
+     * A method that shows a light in a state, unless it already is. Called
+     * by the {@link UpdateDispatcher} once per pulse.
+     *
+     * @param index the index of the light
+     * @param state one of the {@link PadImages} states
+     */
+    void showLightState(int index, int state) {
+        if (padStates[index] != state) {
+            showState(index, state);
+        }
+    }
+
+    /**
+     * A method that draws the board now if it is drawn on a canvas, so the
+     * lights changed by a pass show on the same pulse
+     */
+    void flushBoard() {
+        if (boardCanvas != null) {
+            boardCanvas.flush();
+        }
     }
 
     /**
      * A method that initializes the styling of the scene graph
      */
     public void initStyling() {
-        root.setStyle("-fx-background-color: #152238;");
+        stack.setStyle("-fx-background-color: #152238;");
 
         grid.setPadding(new javafx.geometry.Insets(10));
         grid.setHgap(10);
@@ -226,33 +653,21 @@ public class SimonView {
     }
 
     /**
-     * A method that initializes the lights
+     * A getter method that returns the number of columns the lights are
+     * laid out in
+     *
+     * @return the number of columns
      */
-    private void initializeLights() {
-        // Assuming you want to create a view for each color in the enum
-        for (LightColorEnum color : LightColorEnum.values()) {
-            light = new Rectangle(300, 300, color.getColor());
-            light.setFill(Color.DARKGRAY); // Initially, all lights are off.
-            lights.add(light);
-        }
-
-        for (Rectangle light : lights) {
-            light.setOnMouseClicked(event -> {
-                Glow currentGlow = (light.getEffect() instanceof Glow) ? (Glow) light.getEffect() : null;
-                if (currentGlow == null || currentGlow.getLevel() < 0.8) {
-                    light.setEffect(new Glow(0.8));
-                } else {
-                    light.setEffect(null); // Turn off the glow
-                }
-            });
-        }
+    public int getColumnCount() {
+        return columns;
     }
 
     /**
      * Returns the light at the given index.
      *
      * @param index The index of the light to return.
-     * @return The light at the given index.
+     * @return The light at the given index, or null if there is none or
+     * the lights are drawn on a canvas.
      */
     public Rectangle getLight(int index) {
         if (index >= 0 && index < lights.size()) {
@@ -267,10 +682,19 @@ public class SimonView {
      * @param index The index of the light to highlight.
      */
     public void highlightLight(int index) {
-        Rectangle light = getLight(index);
-        if (light != null) {
-            light.setEffect(new Glow(0.8));
-            // Additional highlighting logic
+        if (index >= 0 && index < padStates.length) {
+            showState(index, PadImages.LIT);
+        }
+    }
+
+    /**
+     * Highlights the light at the given index as pressed by the user.
+     *
+     * @param index The index of the light to press.
+     */
+    public void pressLight(int index) {
+        if (index >= 0 && index < padStates.length) {
+            showState(index, PadImages.PRESSED);
         }
     }
 
@@ -280,29 +704,41 @@ public class SimonView {
      * @param index The index of the light to unhighlight.
      */
     public void unhighlightLight(int index) {
-        Rectangle light = getLight(index);
-        if (light != null) {
-            light.setEffect(null); // Remove the glow effect.
+        if (index >= 0 && index < padStates.length) {
+            showState(index, PadImages.OFF);
         }
     }
 
     /**
-     * A method that displays a message when the user clicks on the wrong light
+     * A method that shows the game-over overlay when the user clicks on the
+     * wrong light. It returns right away; the game behind the overlay gets
+     * no input until it is hidden.
      */
     public void showGameOverMessage() {
-        // Create an alert
-        Alert gameOverAlert = new Alert(AlertType.INFORMATION);
-        gameOverAlert.setTitle("Game Over");
-        gameOverAlert.setHeaderText(null);
-        gameOverAlert.setContentText("Oops! Wrong color. Game Over!");
+        lblGameOver.setText("Oops! Wrong color. Game Over! Score: " + theModel.getScore());
+        gameOverOverlay.setVisible(true);
+        btnPlayAgain.requestFocus();
 
-        // Display the alert and wait for the user to close it
-        gameOverAlert.showAndWait();
-
-        // Update the score to reflect the final score or reset it to 0
+        // Update the score to reflect the final score
         updateScoreDisplay(theModel.getScore());
     }
 
+    /**
+     * A method that hides the game-over overlay
+     */
+    public void hideGameOverMessage() {
+        gameOverOverlay.setVisible(false);
+    }
+
+    /**
+     * Is the game-over overlay showing?
+     *
+     * @return true if the overlay is showing
+     */
+    public boolean isGameOverShowing() {
+        return gameOverOverlay.isVisible();
+    }
+
     /**
      * A method that displays the btnQuitGame button and hides the btnStartGame button and lblStatus label
      */
@@ -329,4 +765,13 @@ public class SimonView {
     public void updateScoreDisplay(int score) {
         lblScore.setText("Score: " + score);
     }
+
+    /**
+     * A method that updates the personal best display
+     *
+     * @param best the personal best to be displayed
+     */
+    public void updateBestDisplay(int best) {
+        lblBest.setText("Best: " + best);
+    }
 }
\ No newline at end of file
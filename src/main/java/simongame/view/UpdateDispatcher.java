@@ -0,0 +1,336 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/19/26
+ * Time: 7:10 AM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.view
+ * Class: UpdateDispatcher
+ *
+ * Description: Gathers model changes and applies them to the view once per pulse
+ *
+ * ****************************************
+ */
+
+package simongame.view;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+/**
+ * Gathers the changes the game makes to what the view shows, the state of
+ * each light, the score, the personal best and whether a game is being
+ * played, into one dirty set, and applies them to a {@link SimonView} at
+ * most once per pulse.
+ * <p>
+ * Recording a change only stores the new value and sets a dirty bit; the
+ * lights have one bit each in a bitmask. The pass runs as a pre-layout
+ * pulse listener of the view's scene, after every {@link
+ * javafx.animation.AnimationTimer} of the pulse has made its changes and
+ * before CSS and layout, so however many changes a pulse brings, and
+ * from however many sources, the view is touched once and the changes
+ * show on that same frame. A light that turns on and off again before a
+ * pulse has shown it, as happens when a stalled JavaFX thread makes the
+ * playback catch up on both edges of a step at once, is still shown lit
+ * for one pulse and turned off on the next, so no step of the sequence
+ * goes unseen. Nothing is allocated per change or per pass.
+ */
+public class UpdateDispatcher {
+
+    /**
+     * The dirty bit of the lights
+     */
+    private static final int LIGHTS = 1;
+
+    /**
+     * The dirty bit of the score
+     */
+    private static final int SCORE = 1 << 1;
+
+    /**
+     * The dirty bit of the personal best
+     */
+    private static final int BEST = 1 << 2;
+
+    /**
+     * The dirty bit of the game controls
+     */
+    private static final int STATUS = 1 << 3;
+
+    /**
+     * The view the changes are applied to
+     */
+    private final SimonView view;
+
+    /**
+     * The state to show each light in, one of the {@link PadImages} states
+     */
+    private final int[] lightStates;
+
+    /**
+     * One bit per light whose state changed since the last pass
+     */
+    private final long[] dirtyLights;
+
+    /**
+     * One bit per light that was turned off before a pass showed it lit,
+     * to be turned off by the pass after next
+     */
+    private final long[] deferredOff;
+
+    /**
+     * What changed since the last pass, a mix of the dirty bits
+     */
+    private int dirty;
+
+    /**
+     * The score to show
+     */
+    private int score;
+
+    /**
+     * The personal best to show
+     */
+    private int best;
+
+    /**
+     * Is a game being played?
+     */
+    private boolean playing;
+
+    /**
+     * The scene the pass is listening to, or null before the view is shown
+     */
+    private Scene scene;
+
+    /**
+     * Applies the changes on every pulse of the scene
+     */
+    private final Runnable pass = this::applyChanges;
+
+    /**
+     * The number of passes that changed the view
+     */
+    private volatile long passes;
+
+    /**
+     * The number of changes recorded
+     */
+    private volatile long changes;
+
+    /**
+     * Constructs a dispatcher. Nothing is applied until it is attached.
+     *
+     * @param view       the view to apply the changes to
+     * @param lightCount the number of lights
+     */
+    public UpdateDispatcher(SimonView view, int lightCount) {
+        this.view = view;
+        this.lightStates = new int[lightCount];
+        this.dirtyLights = new long[(lightCount + Long.SIZE - 1) / Long.SIZE];
+        this.deferredOff = new long[dirtyLights.length];
+    }
+
+    /**
+     * Starts applying the changes on the pulses of whatever scene a node
+     * is in
+     *
+     * @param root the root of the view
+     */
+    public void attach(Node root) {
+        root.sceneProperty().addListener((observable, oldScene, newScene) -> listenTo(newScene));
+        listenTo(root.getScene());
+    }
+
+    /**
+     * Moves the pass to a new scene
+     *
+     * @param newScene the scene, or null
+     */
+    private void listenTo(Scene newScene) {
+        if (scene == newScene) {
+            return;
+        }
+        if (scene != null) {
+            scene.removePreLayoutPulseListener(pass);
+        }
+        scene = newScene;
+        if (scene != null) {
+            scene.addPreLayoutPulseListener(pass);
+            if (dirty != 0) {
+                Platform.requestNextPulse();
+            }
+        }
+    }
+
+    /**
+     * Shows a light in a state from the next pulse. Turning off a light
+     * whose lit state no pulse has shown yet waits one pulse, so the light
+     * is seen.
+     *
+     * @param index the index of the light
+     * @param state one of the {@link PadImages} states
+     */
+    public void setLightState(int index, int state) {
+        if (index < 0 || index >= lightStates.length) {
+            return;
+        }
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if (state == PadImages.OFF && (dirtyLights[word] & bit) != 0 && lightStates[index] != PadImages.OFF) {
+            // Keep the lit state for the next pass and turn it off after it
+            changes++;
+            deferredOff[word] |= bit;
+            return;
+        }
+        deferredOff[word] &= ~bit;
+        lightStates[index] = state;
+        dirtyLights[word] |= bit;
+        markDirty(LIGHTS);
+    }
+
+    /**
+     * A getter method for the state a light is in, which the view shows
+     * from the next pulse, or the one after if the light was turned off
+     * before it was shown lit
+     *
+     * @param index the index of the light
+     * @return one of the {@link PadImages} states
+     */
+    public int getLightState(int index) {
+        if ((deferredOff[index >>> 6] & 1L << index) != 0) {
+            return PadImages.OFF;
+        }
+        return lightStates[index];
+    }
+
+    /**
+     * Shows a score from the next pulse
+     *
+     * @param score the score
+     */
+    public void setScore(int score) {
+        this.score = score;
+        markDirty(SCORE);
+    }
+
+    /**
+     * Shows a personal best from the next pulse
+     *
+     * @param best the personal best
+     */
+    public void setBest(int best) {
+        this.best = best;
+        markDirty(BEST);
+    }
+
+    /**
+     * Shows the controls for playing a game, or for starting one, from the
+     * next pulse
+     *
+     * @param playing true while a game is being played
+     */
+    public void setPlaying(boolean playing) {
+        this.playing = playing;
+        markDirty(STATUS);
+    }
+
+    /**
+     * Records a change and makes sure a pulse comes to apply it
+     *
+     * @param bit the dirty bit of what changed
+     */
+    private void markDirty(int bit) {
+        changes++;
+        if (dirty == 0) {
+            // Changes made outside a pulse, from a runLater or an event,
+            // don't touch the scene graph, so ask for the pulse ourselves
+            Platform.requestNextPulse();
+        }
+        dirty |= bit;
+    }
+
+    /**
+     * Applies everything that changed since the last pass. Runs once per
+     * pulse, before layout.
+     */
+    private void applyChanges() {
+        int changed = dirty;
+        if (changed == 0) {
+            return;
+        }
+        dirty = 0;
+        passes++;
+        if ((changed & LIGHTS) != 0) {
+            for (int word = 0; word < dirtyLights.length; word++) {
+                long bits = dirtyLights[word];
+                dirtyLights[word] = 0;
+                while (bits != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    view.showLightState(index, lightStates[index]);
+                }
+            }
+            view.flushBoard();
+            turnOffDeferred();
+        }
+        if ((changed & SCORE) != 0) {
+            view.updateScoreDisplay(score);
+        }
+        if ((changed & BEST) != 0) {
+            view.updateBestDisplay(best);
+        }
+        if ((changed & STATUS) != 0) {
+            if (playing) {
+                view.showStartGameUI();
+            } else {
+                view.showEndGameUI();
+            }
+        }
+    }
+
+    /**
+     * Queues the lights that were turned off before they were shown lit
+     * for the next pass, now that this pass has shown them lit
+     */
+    private void turnOffDeferred() {
+        boolean any = false;
+        for (int word = 0; word < deferredOff.length; word++) {
+            long bits = deferredOff[word];
+            if (bits == 0) {
+                continue;
+            }
+            deferredOff[word] = 0;
+            dirtyLights[word] |= bits;
+            any = true;
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                lightStates[index] = PadImages.OFF;
+            }
+        }
+        if (any) {
+            dirty |= LIGHTS;
+            Platform.requestNextPulse();
+        }
+    }
+
+    /**
+     * A getter method for the number of passes that changed the view
+     *
+     * @return the number of passes
+     */
+    public long getPassCount() {
+        return passes;
+    }
+
+    /**
+     * A getter method for the number of changes recorded
+     *
+     * @return the number of changes, each coalesced into some pass
+     */
+    public long getChangeCount() {
+        return changes;
+    }
+}
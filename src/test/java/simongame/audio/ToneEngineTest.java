@@ -0,0 +1,222 @@
+/* *****************************************
+ * Name: Nolan Lwin
+ * Date: 10/18/26
+ * Time: 1:20 PM
+ *
+ * Project: SIMON-SAYS
+ * Package: simongame.audio
+ * Class: ToneEngineTest
+ *
+ * Description: Tests the tone mixer against a sink that keeps count
+ *
+ * ****************************************
+ */
+
+package simongame.audio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests {@link ToneEngine} by mixing into a {@link NullSink} that isn't
+ * real-time, so the mixer runs flat out and a test takes milliseconds
+ * rather than the length of the sound.
+ */
+class ToneEngineTest {
+
+    /**
+     * How long to wait for the mixer to catch up, in nanoseconds
+     */
+    private static final long WAIT_NANOS = 5_000_000_000L;
+
+    /**
+     * Enough bytes for several chunks of the default line buffer
+     */
+    private static final long SETTLE_BYTES = 8L * ToneEngine.DEFAULT_BUFFER_FRAMES * 2;
+
+    /**
+     * Playing a tone makes sound
+     */
+    @Test
+    @Timeout(10)
+    void playMakesSound() {
+        NullSink sink = new NullSink(false);
+        try (ToneEngine tones = new ToneEngine(4, sink, ToneEngine.DEFAULT_BUFFER_FRAMES)) {
+            settle(sink);
+            assertEquals(0, sink.getPeak(), "sound before any tone was played");
+
+            tones.play(0);
+            assertTrue(await(() -> sink.getPeak() > 0), "no sound after play");
+        }
+    }
+
+    /**
+     * Stopping a pad's tone fades it out to silence
+     */
+    @Test
+    @Timeout(10)
+    void stopFadesToSilence() {
+        NullSink sink = new NullSink(false);
+        try (ToneEngine tones = new ToneEngine(4, sink, ToneEngine.DEFAULT_BUFFER_FRAMES)) {
+            tones.play(2);
+            assertTrue(await(() -> sink.getLastPeak() > 0), "no sound after play");
+
+            tones.stop(2);
+            assertSilent(sink);
+        }
+    }
+
+    /**
+     * Stopping every tone fades them all out to silence
+     */
+    @Test
+    @Timeout(10)
+    void stopAllFadesToSilence() {
+        NullSink sink = new NullSink(false);
+        try (ToneEngine tones = new ToneEngine(4, sink, ToneEngine.DEFAULT_BUFFER_FRAMES)) {
+            for (int pad = 0; pad < 4; pad++) {
+                tones.play(pad);
+            }
+            assertTrue(await(() -> sink.getLastPeak() > 0), "no sound after play");
+
+            tones.stopAll();
+            assertSilent(sink);
+        }
+    }
+
+    /**
+     * A ninth tone takes the voice of the oldest, so stopping the eight
+     * newest leaves nothing sounding
+     */
+    @Test
+    @Timeout(10)
+    void extraToneStealsTheOldestVoice() throws InterruptedException {
+        NullSink sink = new NullSink(false);
+        try (ToneEngine tones = new ToneEngine(9, sink, ToneEngine.DEFAULT_BUFFER_FRAMES)) {
+            for (int pad = 0; pad < 9; pad++) {
+                tones.play(pad);
+                // Each tone starts at a later time than the one before
+                Thread.sleep(1);
+            }
+            assertTrue(await(() -> sink.getLastPeak() > 0), "no sound after play");
+
+            for (int pad = 1; pad < 9; pad++) {
+                tones.stop(pad);
+            }
+            assertSilent(sink);
+        }
+    }
+
+    /**
+     * A stop that doesn't fit on a full command queue still silences the
+     * tone it was meant for
+     */
+    @Test
+    @Timeout(10)
+    void droppedStopSilencesEverything() throws InterruptedException {
+        GateSink sink = new GateSink();
+        try (ToneEngine tones = new ToneEngine(4, sink, ToneEngine.DEFAULT_BUFFER_FRAMES)) {
+            // Hold the mixer in its first write so nothing is drained
+            sink.entered.await();
+            tones.play(0);
+            for (int i = 0; i < 63; i++) {
+                tones.stop(1);
+            }
+            // The queue holds 64 commands, so this one is dropped
+            tones.stop(0);
+            sink.open.countDown();
+
+            assertSilent(sink.counter);
+        }
+    }
+
+    /**
+     * Waits until the mixer has written some more
+     *
+     * @param sink the sink the mixer writes to
+     */
+    private static void settle(NullSink sink) {
+        long target = sink.getBytesWritten() + SETTLE_BYTES;
+        assertTrue(await(() -> sink.getBytesWritten() >= target), "the mixer stopped writing");
+    }
+
+    /**
+     * Checks that the mixer goes silent and stays silent
+     *
+     * @param sink the sink the mixer writes to
+     */
+    private static void assertSilent(NullSink sink) {
+        assertTrue(await(() -> sink.getLastPeak() == 0), "still sounding");
+        settle(sink);
+        assertEquals(0, sink.getLastPeak(), "sound came back");
+    }
+
+    /**
+     * Polls a condition until it holds or {@link #WAIT_NANOS} pass
+     *
+     * @param condition the condition
+     * @return true if the condition held in time
+     */
+    private static boolean await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + WAIT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * A sink that holds the mixer in its first write until opened, then
+     * counts the sound like a {@link NullSink}
+     */
+    private static final class GateSink implements AudioSink {
+
+        /**
+         * Counted down when the mixer reaches its first write
+         */
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        /**
+         * Counted down to let the mixer carry on
+         */
+        private final CountDownLatch open = new CountDownLatch(1);
+
+        /**
+         * Keeps count of the sound written
+         */
+        private final NullSink counter = new NullSink(false);
+
+        /**
+         * Blocks the first write until the gate opens, then counts the sound
+         *
+         * @param buffer the PCM bytes
+         * @param length the number of bytes to write
+         */
+        @Override
+        public void write(byte[] buffer, int length) {
+            entered.countDown();
+            try {
+                open.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            counter.write(buffer, length);
+        }
+
+        /**
+         * Opens the gate so the mixer can stop
+         */
+        @Override
+        public void close() {
+            open.countDown();
+        }
+    }
+}